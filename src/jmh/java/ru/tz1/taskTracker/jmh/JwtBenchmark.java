@@ -0,0 +1,70 @@
+package ru.tz1.taskTracker.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.tz1.taskTracker.util.JwtUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость операций JwtUtil, выполняемых на каждый запрос: выдача токена при входе,
+ * проверка токена и извлечение email в JwtAuthenticationFilter.
+ * Проверка измеряется с кэшем утверждений (повторные запросы с тем же токеном) и без него
+ * (первый запрос с токеном: проверка подписи и разбор).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String EMAIL = "user@example.com";
+    private static final String SECRET = "WorkSecretKey";
+
+    private JwtUtil cachedJwtUtil; // Кэш утверждений как в приложении
+    private JwtUtil uncachedJwtUtil; // Кэш нулевого размера: каждая проверка разбирает токен
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedJwtUtil = new JwtUtil(SECRET, 10_000);
+        uncachedJwtUtil = new JwtUtil(SECRET, 0);
+        token = cachedJwtUtil.generateToken(EMAIL);
+        cachedJwtUtil.extractClaims(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedJwtUtil.generateToken(EMAIL);
+    }
+
+    @Benchmark
+    public Boolean validateTokenCached() {
+        return cachedJwtUtil.validateToken(token, EMAIL);
+    }
+
+    @Benchmark
+    public Boolean validateTokenUncached() {
+        return uncachedJwtUtil.validateToken(token, EMAIL);
+    }
+
+    @Benchmark
+    public String extractUsernameCached() {
+        return cachedJwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public String extractUsernameUncached() {
+        return uncachedJwtUtil.extractUsername(token);
+    }
+}
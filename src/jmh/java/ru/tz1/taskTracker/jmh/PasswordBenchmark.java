@@ -0,0 +1,52 @@
+package ru.tz1.taskTracker.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.tz1.taskTracker.service.UserService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость UserService.isPasswordValid (BCrypt) при входе пользователя для нескольких значений
+ * security.bcrypt.strength. Показывает, сколько проверок в секунду выдерживает одно ядро.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordBenchmark {
+
+    private static final String PASSWORD = "adminPassword123";
+
+    @Param({"8", "10", "12"})
+    public int strength;
+
+    private UserService userService;
+    private String encodedPassword;
+
+    @Setup
+    public void setUp() {
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(strength);
+        userService = new UserService();
+        ReflectionTestUtils.setField(userService, "passwordEncoder", passwordEncoder);
+        encodedPassword = passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean isPasswordValid() {
+        return userService.isPasswordValid(PASSWORD, encodedPassword);
+    }
+}
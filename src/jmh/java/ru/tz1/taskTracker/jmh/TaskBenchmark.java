@@ -0,0 +1,97 @@
+package ru.tz1.taskTracker.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.tz1.taskTracker.entity.Task;
+import ru.tz1.taskTracker.entity.TaskPageDto;
+import ru.tz1.taskTracker.entity.TaskPriority;
+import ru.tz1.taskTracker.entity.TaskStatus;
+import ru.tz1.taskTracker.util.TaskValidator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость обработки задач в запросах: проверка задачи (TaskController.isValidTask делегирует
+ * TaskValidator.validate) и сериализация страницы задач в JSON для ответов GET /tasks разного размера.
+ * ObjectMapper настраивается так же, как в Spring MVC (даты ISO-строками).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskBenchmark {
+
+    private Task validTask;
+    private Task invalidTask;
+
+    /**
+     * Страница задач заданного размера и ObjectMapper для её сериализации.
+     */
+    @State(Scope.Benchmark)
+    public static class Page {
+
+        @Param({"1", "50", "200"})
+        public int size;
+
+        private ObjectMapper objectMapper;
+        private TaskPageDto<Task> page;
+
+        @Setup
+        public void setUp() {
+            objectMapper = Jackson2ObjectMapperBuilder.json().build();
+            List<Task> tasks = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                tasks.add(task(i));
+            }
+            page = new TaskPageDto<>(tasks, "cursor");
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        validTask = task(0);
+        invalidTask = new Task(null, "Task", "Short", TaskStatus.WAITING, TaskPriority.MEDIUM,
+                LocalDate.now(), null, new ArrayList<>());
+    }
+
+    @Benchmark
+    public String validateValidTask() {
+        return TaskValidator.validate(validTask);
+    }
+
+    @Benchmark
+    public String validateInvalidTask() {
+        return TaskValidator.validate(invalidTask);
+    }
+
+    @Benchmark
+    public String serializeTaskPage(Page state) throws JsonProcessingException {
+        return state.objectMapper.writeValueAsString(state.page);
+    }
+
+    private static Task task(int index) {
+        Task task = new Task((long) index + 1, "Task " + index, "Description of task number " + index,
+                TaskStatus.IN_PROGRESS, TaskPriority.HIGH, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31),
+                new ArrayList<>(List.of("first comment", "second comment")));
+        task.setVersion(3L);
+        task.setChangeSeq((long) index + 1);
+        return task;
+    }
+}
@@ -0,0 +1,126 @@
+package ru.tz1.taskTracker.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.tz1.taskTracker.entity.Task;
+import ru.tz1.taskTracker.entity.TaskSummaryDto;
+import ru.tz1.taskTracker.entity.User;
+
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кэш второго уровня Hibernate и кэш запросов.
+ * Кэшируются задачи, их комментарии, пользователи и результаты запросов первых страниц списка задач
+ * (обычных и кратких представлений, в отдельных регионах).
+ * Регионы хранятся в кэшах JCache на Caffeine с ограниченным размером и временем жизни записей.
+ * Все регионы создаются здесь заранее, а недостающий регион считается ошибкой
+ * (hibernate.javax.cache.missing_cache_strategy=fail), поэтому кэш без ограничения размера не появится.
+ * Hibernate сам обновляет кэш при изменении сущностей и очищает регионы при массовых JPQL-запросах;
+ * комментарии и версия задачи изменяются в обход Hibernate, и записи этой задачи удаляет TaskCacheEvictor.
+ * Статистика регионов (попадания, промахи, вытеснения) публикуется метриками cache.* с тегом cacheManager=hibernate.
+ */
+@Configuration
+@ConditionalOnProperty(name = "entity-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class HibernateCacheConfig {
+
+    static final String QUERY_RESULTS_REGION = "default-query-results-region"; // Результаты кэшируемых запросов
+    static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region"; // Время изменения таблиц
+
+    /**
+     * Менеджер кэшей JCache для регионов Hibernate. У каждого контекста приложения свой менеджер:
+     * тесты и бенчмарки запускают несколько контекстов с разными базами данных в одной JVM.
+     *
+     * @param taskMaxSize  Максимальное количество задач (и наборов комментариев) в кэше.
+     * @param userMaxSize  Максимальное количество пользователей в кэше.
+     * @param queryMaxSize Максимальное количество результатов запросов в каждом регионе кэша запросов.
+     * @param ttlSeconds   Время жизни записи в секундах.
+     * @return Менеджер кэшей с созданными регионами.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(@Value("${entity-cache.task.max-size:10000}") long taskMaxSize,
+                                           @Value("${entity-cache.user.max-size:1000}") long userMaxSize,
+                                           @Value("${entity-cache.query.max-size:1000}") long queryMaxSize,
+                                           @Value("${entity-cache.ttl-seconds:300}") long ttlSeconds) {
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager(
+                URI.create("taskTracker:entity-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+        createCache(cacheManager, Task.CACHE_REGION, taskMaxSize, ttlSeconds);
+        createCache(cacheManager, Task.COMMENTS_CACHE_REGION, taskMaxSize, ttlSeconds);
+        createCache(cacheManager, User.CACHE_REGION, userMaxSize, ttlSeconds);
+        createCache(cacheManager, QUERY_RESULTS_REGION, queryMaxSize, ttlSeconds);
+        createCache(cacheManager, TaskSummaryDto.QUERY_CACHE_REGION, queryMaxSize, ttlSeconds);
+        // Отметки времени изменения таблиц (по одной на таблицу) не вытесняются и не устаревают,
+        // иначе кэш запросов мог бы вернуть результат, устаревший после изменения таблицы
+        createCache(cacheManager, UPDATE_TIMESTAMPS_REGION, 0, 0);
+        return cacheManager;
+    }
+
+    /**
+     * Включает кэш второго уровня и кэш запросов Hibernate на регионах из {@link #entityCacheManager}.
+     *
+     * @param entityCacheManager Менеджер кэшей регионов.
+     * @return Настройка свойств Hibernate.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheHibernateProperties(CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            // Кэш запросов хранит только идентификаторы задач, а сами задачи читаются из региона task,
+            // поэтому изменение задачи, не меняющее состав страницы, не делает страницу устаревшей
+            properties.put("hibernate.cache.query_cache_layout", "SHALLOW");
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    /**
+     * Метрики регионов: cache.gets (по result), cache.puts, cache.removals и cache.evictions.
+     *
+     * @param entityCacheManager Менеджер кэшей регионов.
+     * @return Регистратор метрик.
+     */
+    @Bean
+    public MeterBinder entityCacheMetrics(CacheManager entityCacheManager) {
+        return registry -> {
+            for (String name : entityCacheManager.getCacheNames()) {
+                JCacheMetrics.monitor(registry, entityCacheManager.getCache(name), "cacheManager", "hibernate");
+            }
+        };
+    }
+
+    /**
+     * Создает регион.
+     *
+     * @param cacheManager Менеджер кэшей.
+     * @param name         Имя региона.
+     * @param maxSize      Максимальное количество записей (0 - без ограничения).
+     * @param ttlSeconds   Время жизни записи в секундах (0 - без ограничения).
+     */
+    private static void createCache(CacheManager cacheManager, String name, long maxSize, long ttlSeconds) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maxSize > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (ttlSeconds > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        }
+        // Hibernate кладет в кэш неизменяемое разобранное состояние, копировать его при каждом обращении не нужно
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(name, configuration);
+    }
+}
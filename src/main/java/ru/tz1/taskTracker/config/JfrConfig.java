@@ -0,0 +1,67 @@
+package ru.tz1.taskTracker.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import ru.tz1.taskTracker.entity.TaskChangesDto;
+import ru.tz1.taskTracker.entity.TaskPageDto;
+import ru.tz1.taskTracker.jfr.JsonSerializationEvent;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * Конфигурация событий JFR веб-слоя.
+ * Конвертер JSON заменяет конвертер Spring Boot (он создается только при отсутствии своего бина)
+ * и записывает событие {@link JsonSerializationEvent} для сериализации тел ответов дольше порога события.
+ */
+@Configuration
+public class JfrConfig {
+
+    /**
+     * Конвертер Jackson с событием JFR на запись тела ответа.
+     *
+     * @param objectMapper Настроенный в приложении ObjectMapper.
+     * @return Конвертер JSON.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                    throws IOException, HttpMessageNotWritableException {
+                JsonSerializationEvent event = new JsonSerializationEvent();
+                event.begin();
+                try {
+                    super.writeInternal(object, type, outputMessage);
+                } finally {
+                    if (event.shouldCommit()) {
+                        event.type = object.getClass().getSimpleName();
+                        event.rowCount = rowCount(object);
+                        event.commit();
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Количество задач или элементов в теле ответа.
+     */
+    private static int rowCount(Object body) {
+        if (body instanceof TaskPageDto<?> page) {
+            return page.getTasks().size();
+        }
+        if (body instanceof TaskChangesDto changes) {
+            return changes.getTasks().size() + changes.getDeleted().size();
+        }
+        if (body instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        return 1;
+    }
+}
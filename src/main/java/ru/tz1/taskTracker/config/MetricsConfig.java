@@ -0,0 +1,27 @@
+package ru.tz1.taskTracker.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация метрик Micrometer.
+ * Метрики HTTP-запросов (http.server.requests), вызовов репозиториев Spring Data
+ * (spring.data.repository.invocations) и пула соединений (hikaricp.*) Spring Boot собирает сам;
+ * здесь подключается поддержка аннотации @Timed для таймеров операций сервисов.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Аспект, который измеряет время методов, помеченных @Timed (или классов с этой аннотацией).
+     *
+     * @param meterRegistry Реестр метрик.
+     * @return Аспект таймеров.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
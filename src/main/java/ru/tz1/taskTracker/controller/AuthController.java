@@ -1,9 +1,12 @@
 package ru.tz1.taskTracker.controller;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -12,6 +15,12 @@ import ru.tz1.taskTracker.entity.User;
 import ru.tz1.taskTracker.service.UserService;
 import ru.tz1.taskTracker.util.JwtUtil;
 
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
 /**
  * Контроллер для обработки аутентификации пользователей.
  * Предоставляет методы для входа в систему и регистрации пользователей.
@@ -26,45 +35,116 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    private final Map<LoginOutcome, Counter> loginCounters = new EnumMap<>(LoginOutcome.class); // Счетчики auth.login
+
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 
+    /**
+     * Конструктор. Счетчики результатов входа регистрируются один раз, а не ищутся в реестре при каждом входе.
+     *
+     * @param meterRegistry реестр метрик
+     */
+    @Autowired
+    public AuthController(MeterRegistry meterRegistry) {
+        for (LoginOutcome outcome : LoginOutcome.values()) {
+            loginCounters.put(outcome, Counter.builder("auth.login")
+                    .description("Login attempts by outcome")
+                    .tag("outcome", outcome.tag)
+                    .register(meterRegistry));
+        }
+    }
+
     /**
      * Метод для входа пользователя в систему.
+     * Проверка пароля (BCrypt) выполняется на отдельном ограниченном пуле потоков, поэтому поток сервера
+     * освобождается на время хеширования. Если пул перегружен, запрос сразу получает ответ 503.
+     * Результат входа учитывается в счетчике auth.login с тегом outcome
+     * (success, unknown_user, bad_password, rejected, error).
      *
      * @param user объект пользователя с данными для аутентификации, должен быть действительным
-     * @return ResponseEntity, содержащий JWT-токен и информацию о пользователе, если аутентификация прошла успешно,
-     *         или сообщение об ошибке в противном случае.
+     * @return Future с ResponseEntity, содержащим JWT-токен и информацию о пользователе, если аутентификация
+     *         прошла успешно, или сообщение об ошибке в противном случае.
      */
     @PostMapping("/login")
-    public ResponseEntity<?> loginUser(@RequestBody @Valid User user) {
+    public CompletableFuture<ResponseEntity<?>> loginUser(@RequestBody @Valid User user) {
         logger.info("Login attempt for user: {}", user.getEmail());
 
         // Находим пользователя по email
         User existingUser = userService.findByEmail(user.getEmail());
         if (existingUser == null) {
             logger.warn("User not found: {}", user.getEmail());
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(new ErrorResponse("Invalid credentials"));
+            countLogin(LoginOutcome.UNKNOWN_USER);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ErrorResponse("Invalid credentials")));
         }
 
         // Логируем пароли для отладки
         logger.debug("Raw Password: {}", user.getPassword());
         logger.debug("Encoded Password from DB: {}", existingUser.getPassword());
 
-        // Проверка пароля
-        if (!userService.isPasswordValid(user.getPassword(), existingUser.getPassword())) {
-            logger.warn("Invalid password for user: {}", user.getEmail());
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(new ErrorResponse("Invalid credentials"));
+        // Проверка пароля на пуле BCrypt
+        return userService.isPasswordValidAsync(user.getPassword(), existingUser.getPassword())
+                .<ResponseEntity<?>>thenApply(valid -> {
+                    if (!valid) {
+                        logger.warn("Invalid password for user: {}", user.getEmail());
+                        countLogin(LoginOutcome.BAD_PASSWORD);
+                        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                .body(new ErrorResponse("Invalid credentials"));
+                    }
+
+                    // Генерация и логирование JWT-токена
+                    logger.info("Generating token for user: {}", existingUser.getEmail());
+                    String token = jwtUtil.generateToken(existingUser.getEmail());
+                    logger.info("User {} successfully logged in", user.getEmail());
+                    countLogin(LoginOutcome.SUCCESS);
+
+                    // Возвращаем токен, роль и URL для перенаправления
+                    return ResponseEntity.ok(new LoginResponse(token, existingUser.getRole(), "/mainPage"));
+                })
+                .exceptionally(this::passwordCheckFailed);
+    }
+
+    /**
+     * Преобразует ошибку проверки пароля в ответ: перегрузка пула BCrypt — 503 с заголовком Retry-After,
+     * остальные ошибки — 500.
+     *
+     * @param error ошибка, с которой завершилась проверка пароля
+     * @return ResponseEntity с сообщением об ошибке
+     */
+    private ResponseEntity<?> passwordCheckFailed(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RejectedExecutionException) {
+            logger.warn("Login rejected: password hashing executor is saturated");
+            countLogin(LoginOutcome.REJECTED);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ErrorResponse("Server is busy, please retry"));
         }
+        logger.error("Password check failed: {}", cause.getMessage());
+        countLogin(LoginOutcome.ERROR);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponse("Login failed"));
+    }
+
+    private void countLogin(LoginOutcome outcome) {
+        loginCounters.get(outcome).increment();
+    }
 
-        // Генерация и логирование JWT-токена
-        logger.info("Generating token for user: {}", existingUser.getEmail());
-        String token = jwtUtil.generateToken(existingUser.getEmail());
-        logger.info("User {} successfully logged in", user.getEmail());
+    /**
+     * Результат входа (значение тега outcome счетчика auth.login).
+     */
+    private enum LoginOutcome {
+        SUCCESS("success"),
+        UNKNOWN_USER("unknown_user"),
+        BAD_PASSWORD("bad_password"),
+        REJECTED("rejected"),
+        ERROR("error");
 
-        // Возвращаем токен, роль и URL для перенаправления
-        return ResponseEntity.ok(new LoginResponse(token, existingUser.getRole(), "/mainPage"));
+        private final String tag;
+
+        LoginOutcome(String tag) {
+            this.tag = tag;
+        }
     }
 
     /**
@@ -1,15 +1,49 @@
 package ru.tz1.taskTracker.controller;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.tz1.taskTracker.entity.Task;
+import ru.tz1.taskTracker.entity.TaskBatchResultDto;
+import ru.tz1.taskTracker.entity.TaskCommentDto;
+import ru.tz1.taskTracker.entity.TaskImportJob;
+import ru.tz1.taskTracker.entity.TaskFilter;
+import ru.tz1.taskTracker.entity.TaskPageDto;
+import ru.tz1.taskTracker.entity.TaskPatchDto;
+import ru.tz1.taskTracker.entity.TaskPriority;
+import ru.tz1.taskTracker.entity.TaskStatus;
+import ru.tz1.taskTracker.security.AuthenticatedUser;
+import ru.tz1.taskTracker.service.TaskExportService;
+import ru.tz1.taskTracker.service.TaskChangeCounter;
+import ru.tz1.taskTracker.service.TaskEventPublisher;
+import ru.tz1.taskTracker.service.TaskImportService;
 import ru.tz1.taskTracker.service.TaskService;
 import ru.tz1.taskTracker.util.JwtUtil;
+import ru.tz1.taskTracker.util.RequestLogSampler;
+import ru.tz1.taskTracker.util.TaskValidator;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -20,6 +54,8 @@ import java.util.List;
 @RequestMapping("/")
 public class TaskController {
 
+    private static final Logger logger = LoggerFactory.getLogger(TaskController.class);
+
     private final TaskService taskService;
 
     /**
@@ -44,26 +80,221 @@ public class TaskController {
 
     /**
      * Метод для отображения главной страницы с задачами.
+     * Задачи не загружаются на сервере: страница подгружает их постранично через GET /tasks.
      *
      * @param model Модель для передачи данных на страницу.
      * @return имя HTML-шаблона для главной страницы.
      */
     @GetMapping("/mainPage")
     public String mainPage(Model model) {
-        List<Task> tasks = taskService.getAllTasks();
-        model.addAttribute("tasks", tasks);
         return "mainPage"; // Имя HTML-шаблона для главной страницы
     }
 
     /**
-     * Метод для получения списка всех задач в формате JSON.
+     * Метод для получения страницы задач в формате JSON.
+     * Фильтрация и сортировка выполняются в базе данных по индексам сущности Task.
+     * Использует keyset-пагинацию: для следующей страницы нужно передать nextCursor из ответа
+     * вместе с теми же фильтрами и сортировкой.
+     * Представление summary возвращает задачи без комментариев (только их количество) и читается одним запросом.
+     * Ответ содержит ETag счетчика изменений задач: запрос с совпадающим If-None-Match получает 304
+     * без обращения к базе данных.
      *
-     * @return Список всех задач.
+     * @param status       Фильтр по статусу: название ("в процессе"), имя (IN_PROGRESS) или код.
+     * @param priority     Фильтр по приоритету: название ("высокий"), имя (HIGH) или код.
+     * @param deadlineFrom Нижняя граница дедлайна (включительно, формат yyyy-MM-dd).
+     * @param deadlineTo   Верхняя граница дедлайна (включительно, формат yyyy-MM-dd).
+     * @param sort         Сортировка: taskId, deadline или createdDate, с префиксом "-" для убывания.
+     * @param cursor       Курсор следующей страницы из предыдущего ответа (для первой страницы не указывается).
+     * @param limit        Размер страницы (ограничен сверху настройкой tasks.page.max-size).
+     * @param view         Представление задач: full (по умолчанию) или summary.
+     * @param mine         Только задачи текущего пользователя (выборка по индексу владельца).
+     * @param user         Текущий пользователь, определенный по JWT-токену.
+     * @param webRequest   Текущий запрос для проверки If-None-Match.
+     * @return ResponseEntity со страницей задач или сообщением об ошибке, если параметры неверны.
      */
     @GetMapping("/tasks")
     @ResponseBody
-    public List<Task> getTasks() {
-        return taskService.getAllTasks(); // Возвращаем все задачи
+    public ResponseEntity<?> getTasks(@RequestParam(required = false) String status,
+                                      @RequestParam(required = false) String priority,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deadlineFrom,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deadlineTo,
+                                      @RequestParam(required = false) String sort,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(required = false) Integer limit,
+                                      @RequestParam(defaultValue = "full") String view,
+                                      @RequestParam(defaultValue = "false") boolean mine,
+                                      @AuthenticationPrincipal AuthenticatedUser user,
+                                      WebRequest webRequest) {
+        if (mine && user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized: user is not identified");
+        }
+        // ETag берется до чтения задач, поэтому изменение во время чтения сменит его при следующем запросе
+        String etag = taskChangeCounter.etag(mine ? user.getUserId() : null);
+        if (webRequest.checkNotModified(etag)) {
+            return null; // Ответ 304 уже сформирован
+        }
+        try {
+            TaskFilter filter = new TaskFilter().withSort(sort);
+            if (mine) {
+                filter.setOwnerId(user.getUserId());
+            }
+            filter.setStatus(TaskStatus.fromValue(status));
+            filter.setPriority(TaskPriority.fromValue(priority));
+            filter.setDeadlineFrom(deadlineFrom);
+            filter.setDeadlineTo(deadlineTo);
+
+            if ("summary".equalsIgnoreCase(view)) {
+                return revalidated(etag).body(taskService.getTaskSummariesPage(filter, cursor, limit));
+            }
+            if (!"full".equalsIgnoreCase(view)) {
+                return ResponseEntity.badRequest().body("Unknown view: " + view);
+            }
+            TaskPageDto<Task> page = taskService.getTasksPage(filter, cursor, limit);
+            return revalidated(etag).body(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Метод для подписки на изменения задач (Server-Sent Events).
+     * Поток содержит события created, updated (с текущим состоянием задачи), deleted (с идентификатором)
+     * и reset (список нужно загрузить заново). Медленный клиент отключается; после переподключения
+     * он должен заново загрузить список, так как события за время разрыва не сохраняются.
+     * EventSource не передает заголовки, поэтому JWT-токен можно указать в параметре token.
+     *
+     * @return ResponseEntity с потоком событий или 503, если подписчиков слишком много.
+     */
+    @GetMapping("/tasks/stream")
+    @ResponseBody
+    public ResponseEntity<?> streamTasks() {
+        try {
+            SseEmitter emitter = taskEventPublisher.subscribe();
+            return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter); // Прокси не должен буферизовать поток
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Метод для синхронизации изменений задач. Клиент хранит копию задач и номер nextSince
+     * из последнего ответа; ответ содержит только задачи, созданные и измененные после этого номера,
+     * и идентификаторы удаленных. Пока hasMore равно true, клиент запрашивает следующую порцию.
+     *
+     * @param since Номер изменения из предыдущего ответа (0 для полной синхронизации).
+     * @param limit Желаемое количество изменений в ответе (ограничено настройкой tasks.page.max-size).
+     * @return ResponseEntity с изменениями или 400, если номер отрицательный.
+     */
+    @GetMapping("/tasks/changes")
+    @ResponseBody
+    public ResponseEntity<?> getTaskChanges(@RequestParam(defaultValue = "0") long since,
+                                            @RequestParam(required = false) Integer limit) {
+        if (since < 0) {
+            return ResponseEntity.badRequest().body("Parameter since must not be negative");
+        }
+        return ResponseEntity.ok(taskService.getChanges(since, limit));
+    }
+
+    /**
+     * Метод для полнотекстового поиска задач по заголовку, описанию и комментариям.
+     *
+     * @param q     Строка запроса; задача должна содержать все слова запроса.
+     * @param limit Максимальное количество результатов.
+     * @return Список найденных задач, начиная с самых новых.
+     */
+    @GetMapping("/tasks/search")
+    @ResponseBody
+    public List<Task> searchTasks(@RequestParam("q") String q, @RequestParam(required = false) Integer limit) {
+        return taskService.searchTasks(q, limit);
+    }
+
+    /**
+     * Метод для выгрузки всех задач. Задачи читаются курсором базы данных и сразу пишутся в ответ,
+     * поэтому выгрузка не загружает все задачи в память.
+     *
+     * @param format   Формат выгрузки: ndjson (по умолчанию) или csv.
+     * @param response HTTP-ответ, в который записываются задачи.
+     * @throws IOException при ошибке записи ответа.
+     */
+    @GetMapping("/tasks/export")
+    public void exportTasks(@RequestParam(defaultValue = "ndjson") String format,
+                            HttpServletResponse response) throws IOException {
+        long exported;
+        if ("ndjson".equalsIgnoreCase(format)) {
+            response.setContentType("application/x-ndjson");
+            response.setCharacterEncoding("UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks.ndjson\"");
+            exported = taskExportService.exportNdjson(response.getOutputStream());
+        } else if ("csv".equalsIgnoreCase(format)) {
+            response.setContentType("text/csv");
+            response.setCharacterEncoding("UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks.csv\"");
+            exported = taskExportService.exportCsv(response.getOutputStream());
+        } else {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unknown format: " + format);
+            return;
+        }
+        logger.info("Exported {} tasks as {}", exported, format.toLowerCase());
+    }
+
+    /**
+     * Метод для импорта задач из NDJSON или CSV (формат CSV совпадает с выгрузкой).
+     * Тело запроса читается потоком и не буферизуется; задачи сохраняются порциями в отдельных транзакциях.
+     * Ответ возвращается после обработки всего тела, а ход импорта можно смотреть через GET /tasks/import.
+     *
+     * @param format  Формат входных данных: ndjson (по умолчанию) или csv.
+     * @param request HTTP-запрос, тело которого содержит задачи.
+     * @param user    Текущий пользователь, который становится владельцем импортированных задач.
+     * @return ResponseEntity с итоговым состоянием импорта и ошибками по строкам.
+     * @throws IOException при ошибке чтения запроса.
+     */
+    @PostMapping("/tasks/import")
+    @ResponseBody
+    public ResponseEntity<?> importTasks(@RequestParam(defaultValue = "ndjson") String format,
+                                         HttpServletRequest request,
+                                         @AuthenticationPrincipal AuthenticatedUser user) throws IOException {
+        if (!taskImportService.isSupportedFormat(format)) {
+            return ResponseEntity.badRequest().body("Unknown format: " + format);
+        }
+        TaskImportJob job = taskImportService.createJob(format, ownerIdOf(user));
+        taskImportService.runImport(job, request.getInputStream());
+        HttpStatus status = job.getStatus() == TaskImportJob.Status.COMPLETED
+                ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR;
+        return ResponseEntity.status(status).body(job);
+    }
+
+    /**
+     * Метод для получения состояния последних импортов, включая выполняющиеся.
+     *
+     * @return Список импортов, начиная с самых новых.
+     */
+    @GetMapping("/tasks/import")
+    @ResponseBody
+    public List<TaskImportJob> getImportJobs() {
+        return taskImportService.getJobs();
+    }
+
+    /**
+     * Метод для получения состояния импорта по идентификатору.
+     *
+     * @param jobId Идентификатор импорта.
+     * @return ResponseEntity с состоянием импорта или 404, если импорт не найден.
+     */
+    @GetMapping("/tasks/import/{jobId}")
+    @ResponseBody
+    public ResponseEntity<TaskImportJob> getImportJob(@PathVariable String jobId) {
+        TaskImportJob job = taskImportService.getJob(jobId);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+    }
+
+    /**
+     * Возвращает идентификатор текущего пользователя для назначения владельца задач.
+     *
+     * @param user Текущий пользователь или null, если запрос аутентифицирован не по JWT-токену.
+     * @return Идентификатор пользователя или null.
+     */
+    private static Long ownerIdOf(AuthenticatedUser user) {
+        return user == null ? null : user.getUserId();
     }
 
     /**
@@ -73,54 +304,135 @@ public class TaskController {
      * @return true, если задача валидна, иначе false.
      */
     private boolean isValidTask(Task task) {
-        if (task.getTitle() == null || task.getTitle().length() < 3) {
-            System.out.println("Validation failed: Title is too short. Title: '" + task.getTitle() + "'");
+        String error = TaskValidator.validate(task);
+        if (error != null) {
+            logger.debug("Validation failed: {}", error);
             return false;
         }
-        if (task.getDescription() == null || task.getDescription().length() < 10) {
-            System.out.println("Validation failed: Description is too short. Description: '" + task.getDescription() + "'");
+        return true;
+    }
+
+    /**
+     * Метод для валидации частичного обновления задачи: проверяются только переданные поля.
+     *
+     * @param patch Новые значения полей задачи.
+     * @return true, если переданные поля валидны, иначе false.
+     */
+    private boolean isValidPatch(TaskPatchDto patch) {
+        if (patch.getTitle() != null && patch.getTitle().length() < 3) {
             return false;
         }
-        System.out.println("Task is valid: " + task);
-        return true;
+        return patch.getDescription() == null || patch.getDescription().length() >= 10;
     }
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Value("${tasks.batch.max-size:1000}")
+    private int maxBatchSize; // Максимальное количество задач в одном пакетном запросе
+
+    @Autowired
+    private TaskExportService taskExportService;
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private RequestLogSampler requestLogSampler; // Выборка подробных логов запросов
+
+    @Autowired
+    private TaskChangeCounter taskChangeCounter; // Счетчик изменений для ETag списков задач
+
+    @Autowired
+    private TaskEventPublisher taskEventPublisher; // Поток событий изменения задач
+
     /**
      * Метод для создания новой задачи.
      *
      * @param task Задача, которую необходимо создать.
      * @param token JWT-токен для аутентификации пользователя.
+     * @param user  Текущий пользователь, который становится владельцем задачи.
      * @return ResponseEntity с созданной задачей или сообщением об ошибке.
      */
     @PostMapping("/tasks")
-    public ResponseEntity<?> createTask(@RequestBody Task task, @RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> createTask(@RequestBody Task task, @RequestHeader("Authorization") String token,
+                                        @AuthenticationPrincipal AuthenticatedUser user) {
         String jwtToken = token.replace("Bearer ", "");
 
-        if (!jwtUtil.validateToken(jwtToken, jwtUtil.extractUsername(jwtToken))) {
+        // Утверждения уже проверены фильтром и берутся из кэша JwtUtil без повторной проверки подписи
+        try {
+            Claims claims = jwtUtil.extractClaims(jwtToken);
+            if (!jwtUtil.validateToken(claims, claims.getSubject())) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized: Invalid JWT token");
+            }
+        } catch (JwtException | IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized: Invalid JWT token");
         }
 
-        System.out.println("Received task for creation: " + task);
-
         boolean isValid = isValidTask(task);
         if (!isValid) {
-            System.out.println("Validation failed for task: " + task);
             return ResponseEntity.badRequest().body("Invalid task data"); // Возвращаем сообщение об ошибке
         }
 
         try {
-            taskService.createTask(task);
-            System.out.println("Task created successfully: " + task);
+            taskService.createTask(task, ownerIdOf(user));
+            if (logger.isDebugEnabled() && requestLogSampler.sample()) {
+                logger.debug("Task created: ID = {}, title = '{}'", task.getTaskId(), task.getTitle());
+            }
             return ResponseEntity.ok().body(task); // Возвращаем созданную задачу
         } catch (Exception e) {
-            System.out.println("Error while creating task: " + e.getMessage());
+            logger.error("Error while creating task", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error creating task");
         }
     }
 
+    /**
+     * Метод для пакетного создания задач.
+     * Все задачи проверяются за один проход; корректные задачи сохраняются в одной транзакции
+     * JDBC-пакетами, а некорректные возвращаются с причиной отклонения.
+     *
+     * @param tasks Задачи, которые необходимо создать (не больше tasks.batch.max-size).
+     * @param user  Текущий пользователь, который становится владельцем задач.
+     * @return ResponseEntity с результатом для каждой задачи в порядке запроса или сообщением об ошибке.
+     */
+    @PostMapping("/tasks/batch")
+    @ResponseBody
+    public ResponseEntity<?> createTasks(@RequestBody List<Task> tasks,
+                                         @AuthenticationPrincipal AuthenticatedUser user) {
+        if (tasks == null || tasks.isEmpty()) {
+            return ResponseEntity.badRequest().body("Task list is empty");
+        }
+        if (tasks.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().body("Too many tasks in one batch, maximum is " + maxBatchSize);
+        }
+
+        TaskBatchResultDto result = new TaskBatchResultDto();
+        List<Task> validTasks = new ArrayList<>(tasks.size());
+        List<Integer> validIndexes = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            String error = TaskValidator.validate(task);
+            if (error == null) {
+                validTasks.add(task);
+                validIndexes.add(i);
+            } else {
+                result.rejected(i, error);
+            }
+        }
+
+        try {
+            List<Task> savedTasks = validTasks.isEmpty() ? List.of() : taskService.createTasks(validTasks, ownerIdOf(user));
+            for (int i = 0; i < savedTasks.size(); i++) {
+                result.created(validIndexes.get(i), savedTasks.get(i).getTaskId());
+            }
+        } catch (Exception e) {
+            logger.error("Error while creating batch of {} tasks", validTasks.size(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error creating tasks");
+        }
+        result.getItems().sort(Comparator.comparingInt(TaskBatchResultDto.Item::getIndex));
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Метод для удаления задачи по её идентификатору.
      *
@@ -133,53 +445,222 @@ public class TaskController {
             taskService.deleteTask(taskId); // Удаляем задачу по taskId
             return ResponseEntity.ok().body("Task deleted successfully");
         } catch (Exception e) {
-            System.out.println("Error while deleting task: " + e.getMessage());
+            logger.error("Error while deleting task with ID {}", taskId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error deleting task");
         }
     }
 
     /**
      * Метод для обновления существующей задачи.
+     * С заголовком If-Match (ETag из GET /tasks/{taskId}) задача обновляется, только если её версия
+     * не изменилась; иначе возвращается 409 и клиент должен перечитать задачу.
      *
-     * @param taskId Идентификатор обновляемой задачи.
-     * @param task   Объект задачи с новыми данными.
+     * @param taskId  Идентификатор обновляемой задачи.
+     * @param task    Объект задачи с новыми данными.
+     * @param ifMatch ETag версии задачи, которую видел клиент (необязательный).
      * @return ResponseEntity с обновленной задачей или сообщением об ошибке.
      */
     @PutMapping("/tasks/{taskId}") // Изменяем параметр на taskId
-    public ResponseEntity<?> updateTask(@PathVariable Long taskId, @RequestBody Task task) { // Изменяем параметр на taskId
-        System.out.println("Received request to update task with ID: " + taskId);
-        System.out.println("Received task data for update: " + task);
-
+    public ResponseEntity<?> updateTask(@PathVariable Long taskId, @RequestBody Task task, // Изменяем параметр на taskId
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         boolean isValid = isValidTask(task);
         if (!isValid) {
-            System.out.println("Validation failed for task: " + task);
             return ResponseEntity.badRequest().body("Invalid task data");
         }
+        Long expectedVersion;
+        try {
+            expectedVersion = expectedVersion(taskId, ifMatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+        }
 
         try {
-            taskService.updateTask(taskId, task); // Обновляем задачу по taskId
-            System.out.println("Task updated successfully: ID = " + taskId + ", Updated task = " + task);
-            return ResponseEntity.ok().body(task); // Возвращаем обновленную задачу
+            Task updatedTask = taskService.updateTask(taskId, task, expectedVersion); // Обновляем задачу по taskId
+            if (logger.isDebugEnabled() && requestLogSampler.sample()) {
+                logger.debug("Task updated: ID = {}, title = '{}'", taskId, task.getTitle());
+            }
+            // Возвращаем обновленную задачу
+            return ResponseEntity.ok().eTag(taskEtag(taskId, updatedTask.getVersion())).body(updatedTask);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return versionConflict(taskId);
         } catch (Exception e) {
-            System.out.println("Error while updating task with ID " + taskId + ": " + e.getMessage());
+            logger.error("Error while updating task with ID {}", taskId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error updating task");
         }
     }
 
+    /**
+     * Метод для частичного обновления задачи. Изменяются только переданные поля,
+     * комментарии изменяются через /tasks/{taskId}/comments.
+     * Заголовок If-Match обрабатывается так же, как в {@link #updateTask}.
+     *
+     * @param taskId  Идентификатор обновляемой задачи.
+     * @param patch   Новые значения полей задачи.
+     * @param ifMatch ETag версии задачи, которую видел клиент (необязательный).
+     * @return ResponseEntity с обновленной задачей или сообщением об ошибке.
+     */
+    @PatchMapping("/tasks/{taskId}")
+    public ResponseEntity<?> patchTask(@PathVariable Long taskId, @RequestBody TaskPatchDto patch,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (!isValidPatch(patch)) {
+            return ResponseEntity.badRequest().body("Invalid task data");
+        }
+        Long expectedVersion;
+        try {
+            expectedVersion = expectedVersion(taskId, ifMatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+        }
+        try {
+            Task task = taskService.patchTask(taskId, patch, expectedVersion);
+            if (logger.isDebugEnabled() && requestLogSampler.sample()) {
+                logger.debug("Task patched: ID = {}", taskId);
+            }
+            return ResponseEntity.ok().eTag(taskEtag(taskId, task.getVersion())).body(task);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return versionConflict(taskId);
+        }
+    }
+
+    /**
+     * Извлекает версию задачи из заголовка If-Match.
+     *
+     * @param taskId  Идентификатор изменяемой задачи.
+     * @param ifMatch Значение заголовка If-Match.
+     * @return Ожидаемая версия или null, если заголовка нет или он равен "*".
+     * @throws IllegalArgumentException если заголовок не является ETag этой задачи.
+     */
+    private static Long expectedVersion(Long taskId, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        String prefix = "\"task-" + taskId + "-";
+        if (value.startsWith(prefix) && value.endsWith("\"") && value.length() > prefix.length() + 1) {
+            try {
+                return Long.valueOf(value.substring(prefix.length(), value.length() - 1));
+            } catch (NumberFormatException e) {
+                // Обрабатывается ниже как неподходящий ETag
+            }
+        }
+        throw new IllegalArgumentException("If-Match does not match task " + taskId + ": " + ifMatch);
+    }
+
+    /**
+     * Формирует ответ 409 на изменение задачи, которую уже изменил кто-то другой.
+     *
+     * @param taskId Идентификатор задачи.
+     * @return ResponseEntity с текущим ETag задачи (если она еще существует) и сообщением об ошибке.
+     */
+    private ResponseEntity<?> versionConflict(Long taskId) {
+        logger.info("Version conflict while updating task with ID {}", taskId);
+        Long currentVersion = taskService.getTaskVersion(taskId);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CONFLICT);
+        if (currentVersion != null) {
+            response.eTag(taskEtag(taskId, currentVersion));
+        }
+        return response.body("Task was modified by another request, reload it and retry");
+    }
+
+    /**
+     * Метод для добавления комментария к задаче.
+     *
+     * @param taskId  Идентификатор задачи.
+     * @param comment Добавляемый комментарий.
+     * @return ResponseEntity с добавленным комментарием или сообщением об ошибке.
+     */
+    @PostMapping("/tasks/{taskId}/comments")
+    public ResponseEntity<?> addComment(@PathVariable Long taskId, @RequestBody TaskCommentDto comment) {
+        if (comment.getText() == null || comment.getText().isBlank()) {
+            return ResponseEntity.badRequest().body("Comment text is required");
+        }
+        try {
+            taskService.addComment(taskId, comment.getText());
+            // Комментарий меняет версию задачи; новый ETag позволяет клиенту продолжить редактирование с If-Match
+            return withTaskEtag(ResponseEntity.status(HttpStatus.CREATED), taskId).body(comment);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Метод для удаления комментария задачи. Одинаковые комментарии одной задачи удаляются вместе.
+     *
+     * @param taskId Идентификатор задачи.
+     * @param text   Текст удаляемого комментария.
+     * @return ResponseEntity с подтверждением удаления или сообщением об ошибке.
+     */
+    @DeleteMapping("/tasks/{taskId}/comments")
+    public ResponseEntity<?> removeComment(@PathVariable Long taskId, @RequestParam("text") String text) {
+        try {
+            taskService.removeComment(taskId, text);
+            return withTaskEtag(ResponseEntity.ok(), taskId).body("Comment deleted successfully");
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
     /**
      * Метод для получения задачи по её идентификатору.
+     * ETag задачи строится из её версии; запрос с совпадающим If-None-Match получает 304
+     * после чтения одной версии по первичному ключу, без загрузки задачи и комментариев.
      *
-     * @param taskId Идентификатор задачи, которую необходимо получить.
+     * @param taskId     Идентификатор задачи, которую необходимо получить.
+     * @param webRequest Текущий запрос для проверки If-None-Match.
      * @return ResponseEntity с найденной задачей или сообщением об ошибке, если задача не найдена.
      */
     @GetMapping("/tasks/{taskId}") // Изменяем параметр на taskId
     @ResponseBody
-    public ResponseEntity<Task> getTaskById(@PathVariable Long taskId) { // Изменяем параметр на taskId
+    public ResponseEntity<Task> getTaskById(@PathVariable Long taskId, WebRequest webRequest) { // Изменяем параметр на taskId
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Long version = taskService.getTaskVersion(taskId);
+            if (version != null && webRequest.checkNotModified(taskEtag(taskId, version))) {
+                return null; // Ответ 304 уже сформирован
+            }
+        }
         Task task = taskService.getTaskById(taskId); // Используем taskId для получения задачи
         if (task != null) {
-            return ResponseEntity.ok(task);
+            return revalidated(taskEtag(taskId, task.getVersion())).body(task);
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
         }
     }
+
+    /**
+     * Строит сильный ETag задачи из её идентификатора и версии.
+     *
+     * @param taskId  Идентификатор задачи.
+     * @param version Версия задачи.
+     * @return ETag в кавычках.
+     */
+    private static String taskEtag(Long taskId, Long version) {
+        return "\"task-" + taskId + "-" + version + "\"";
+    }
+
+    /**
+     * Добавляет к ответу ETag текущей версии задачи.
+     *
+     * @param response Построитель ответа.
+     * @param taskId   Идентификатор задачи.
+     * @return Тот же построитель ответа.
+     */
+    private ResponseEntity.BodyBuilder withTaskEtag(ResponseEntity.BodyBuilder response, Long taskId) {
+        Long version = taskService.getTaskVersion(taskId);
+        return version == null ? response : response.eTag(taskEtag(taskId, version));
+    }
+
+    /**
+     * Начинает успешный ответ с ETag, который клиент может кэшировать, но должен перепроверять
+     * при каждом обращении (If-None-Match), чтобы не показывать устаревшие данные.
+     *
+     * @param etag ETag ответа.
+     * @return Построитель ответа 200.
+     */
+    private static ResponseEntity.BodyBuilder revalidated(String etag) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate());
+    }
 }
\ No newline at end of file
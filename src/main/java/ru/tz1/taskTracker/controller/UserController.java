@@ -3,11 +3,13 @@ package ru.tz1.taskTracker.controller;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.tz1.taskTracker.entity.CacheStatsDto;
+import ru.tz1.taskTracker.service.CustomUserDetailsService;
 import ru.tz1.taskTracker.service.UserService;
 
 /**
  * Контроллер для управления пользователями в приложении Task Tracker.
- * Обрабатывает запросы, связанные с удалением пользователей.
+ * Обрабатывает запросы, связанные с удалением пользователей и статистикой кэша аутентификации.
  */
 @RestController
 @RequestMapping("/api/users")
@@ -16,15 +18,18 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
     /**
      * Метод для удаления всех пользователей, которые не являются администраторами.
      *
-     * @return ResponseEntity с сообщением об успешном удалении ненужных пользователей.
+     * @return ResponseEntity с сообщением об успешном удалении и количеством удаленных пользователей.
      */
     @DeleteMapping("/delete-non-admins")
     public ResponseEntity<String> deleteNonAdminUsers() {
-        userService.deleteNonAdminUsers();
-        return ResponseEntity.ok("Все ненужные пользователи успешно удалены.");
+        int deleted = userService.deleteNonAdminUsers();
+        return ResponseEntity.ok("Все ненужные пользователи успешно удалены. Удалено пользователей: " + deleted + ".");
     }
 
     /**
@@ -38,4 +43,14 @@ public class UserController {
         userService.deleteUserById(userId);
         return ResponseEntity.ok("Пользователь с id " + userId + " успешно удален.");
     }
+
+    /**
+     * Метод для получения статистики кэша данных пользователей, используемого при аутентификации запросов.
+     *
+     * @return ResponseEntity с количеством попаданий, промахов и вытеснений кэша.
+     */
+    @GetMapping("/details-cache/stats")
+    public ResponseEntity<CacheStatsDto> getUserDetailsCacheStats() {
+        return ResponseEntity.ok(new CacheStatsDto(userDetailsService.getCacheSize(), userDetailsService.getCacheStats()));
+    }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package ru.tz1.taskTracker.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -8,6 +9,10 @@ import ru.tz1.taskTracker.entity.ResponseMessageDto;
 import ru.tz1.taskTracker.entity.UserRegistrationDto;
 import ru.tz1.taskTracker.service.UserRegistrationService;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
 /**
  * Контроллер для регистрации пользователей в приложении Task Tracker.
  * Обрабатывает запросы, связанные с процессом регистрации нового пользователя.
@@ -21,18 +26,37 @@ public class UserRegistrationController {
 
     /**
      * Метод для регистрации нового пользователя.
+     * Хеширование пароля выполняется на отдельном пуле потоков BCrypt; если пул перегружен, возвращается 503.
      *
      * @param userDto Объект, содержащий данные для регистрации пользователя.
-     * @return ResponseEntity с сообщением о результате регистрации пользователя.
+     * @return Future с ResponseEntity с сообщением о результате регистрации пользователя.
      */
     @PostMapping("/register")
-    public ResponseEntity<ResponseMessageDto> registerUser(@RequestBody UserRegistrationDto userDto) {
+    public CompletableFuture<ResponseEntity<ResponseMessageDto>> registerUser(@RequestBody UserRegistrationDto userDto) {
         try {
             // Вызов метода сервиса для регистрации нового пользователя
-            String registrationResponse = userRegService.registerNewUser(userDto);
-            return ResponseEntity.ok(new ResponseMessageDto(registrationResponse));
+            return userRegService.registerNewUser(userDto)
+                    .thenApply(registrationResponse -> ResponseEntity.ok(new ResponseMessageDto(registrationResponse)))
+                    .exceptionally(this::registrationFailed);
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ResponseMessageDto(e.getMessage()));
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ResponseMessageDto(e.getMessage())));
+        }
+    }
+
+    /**
+     * Преобразует ошибку асинхронной части регистрации в ответ.
+     *
+     * @param error ошибка, с которой завершилась регистрация
+     * @return ResponseEntity с сообщением об ошибке
+     */
+    private ResponseEntity<ResponseMessageDto> registrationFailed(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ResponseMessageDto("Сервер перегружен, повторите попытку позже"));
         }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ResponseMessageDto(cause.getMessage()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package ru.tz1.taskTracker.entity;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Класс DTO (Data Transfer Object) со статистикой кэша.
+ * Используется для отображения эффективности кэшей приложения.
+ */
+public class CacheStatsDto {
+    private final long size; // Текущее количество записей
+    private final long hitCount; // Количество попаданий
+    private final long missCount; // Количество промахов
+    private final double hitRate; // Доля попаданий
+    private final long evictionCount; // Количество вытесненных записей
+
+    /**
+     * Конструктор для создания объекта статистики.
+     *
+     * @param size  Текущее количество записей в кэше.
+     * @param stats Статистика кэша Caffeine.
+     */
+    public CacheStatsDto(long size, CacheStats stats) {
+        this.size = size;
+        this.hitCount = stats.hitCount();
+        this.missCount = stats.missCount();
+        this.hitRate = stats.hitRate();
+        this.evictionCount = stats.evictionCount();
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+}
@@ -1,6 +1,13 @@
 package ru.tz1.taskTracker.entity;
 
 import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -8,30 +15,95 @@ import java.util.List;
 /**
  * Класс, представляющий объект рабочей задачи в приложении Task Tracker.
  * Содержит информацию о заголовке, описании, статусе, приоритете и других атрибутах задачи.
+ * UPDATE содержит только измененные столбцы, поэтому частичное обновление не переписывает остальные поля.
+ * Владелец задачи - пользователь, создавший её; в JSON передается только его идентификатор (ownerId).
+ * Версия задачи увеличивается при каждом изменении и служит ETag отдельной задачи.
+ * Номер изменения (changeSeq) растет монотонно по всем задачам и используется для синхронизации изменений.
+ * Задачи и их комментарии хранятся в кэше второго уровня Hibernate (см. HibernateCacheConfig).
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Task.CACHE_REGION)
+@DynamicUpdate
+@Table(indexes = {
+        // Индексы заканчиваются task_id, чтобы фильтр + сортировка + keyset-пагинация читали только нужные строки
+        // По индексу на каждую сортировку (taskId, deadline, createdDate) для фильтров по статусу и приоритету
+        @Index(name = "idx_task_status_code", columnList = "status_code, task_id"),
+        @Index(name = "idx_task_status_code_deadline", columnList = "status_code, deadline, task_id"),
+        @Index(name = "idx_task_status_code_created_date", columnList = "status_code, created_date, task_id"),
+        @Index(name = "idx_task_priority_code", columnList = "priority_code, task_id"),
+        @Index(name = "idx_task_priority_code_deadline", columnList = "priority_code, deadline, task_id"),
+        @Index(name = "idx_task_priority_code_created_date", columnList = "priority_code, created_date, task_id"),
+        @Index(name = "idx_task_deadline", columnList = "deadline, task_id"),
+        @Index(name = "idx_task_created_date", columnList = "created_date, task_id"),
+        // Выборка задач пользователя (/tasks?mine=true) читает диапазон индекса только его строк
+        @Index(name = "idx_task_owner", columnList = "owner_id, task_id"),
+        @Index(name = "idx_task_owner_deadline", columnList = "owner_id, deadline, task_id"),
+        @Index(name = "idx_task_owner_created_date", columnList = "owner_id, created_date, task_id"),
+        // Выборка изменений после номера (GET /tasks/changes) читает диапазон индекса
+        @Index(name = "idx_task_change_seq", columnList = "change_seq, task_id")
+})
 public class Task {
 
+    /**
+     * Количество идентификаторов, которое Hibernate получает из последовательности task_seq за одно обращение.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Регион кэша второго уровня для задач.
+     */
+    public static final String CACHE_REGION = "task";
+
+    /**
+     * Регион кэша второго уровня для комментариев задач.
+     */
+    public static final String COMMENTS_CACHE_REGION = "task.comments";
+
+    // Идентификаторы выдаются последовательностью пачками по 50 (pooled), поэтому Hibernate
+    // может объединять INSERT в JDBC-пакеты; IDENTITY требует отдельного запроса на каждую строку
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = Task.ID_ALLOCATION_SIZE)
     private Long taskId;
 
+    // Увеличивается Hibernate при изменении полей и комментариев, а также запросами TaskRepository.incrementVersion
+    @Version
+    private Long version;
+
+    // Назначается TaskChangeSequence при каждом изменении; у задач, сохраненных до появления
+    // столбца, значение заполняет TaskSchemaMigration
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
     private String title;
     private String description;
 
-    @Column(nullable = false)
-    private String status; // "в ожидании", "в процессе", "завершено"
+    // Хранятся числовыми кодами; обязательность проверяется TaskValidator, а NOT NULL
+    // на существующих базах выставляет TaskSchemaMigration после заполнения кодов
+    @Convert(converter = TaskStatusConverter.class)
+    @Column(name = "status_code")
+    private TaskStatus status; // "в ожидании", "в процессе", "завершено"
 
-    @Column(nullable = false)
-    private String priority; // "высокий", "средний", "низкий"
+    @Convert(converter = TaskPriorityConverter.class)
+    @Column(name = "priority_code")
+    private TaskPriority priority; // "высокий", "средний", "низкий"
 
     private LocalDate createdDate; // Дата создания
     private LocalDate deadline; // Дата дедлайна
 
     @ElementCollection
     @CollectionTable(name = "task_comments", joinColumns = @JoinColumn(name = "task_id"))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Task.COMMENTS_CACHE_REGION)
     private List<String> comments = new ArrayList<>(); // Список комментариев
 
+    // При удалении пользователя база данных сама обнуляет owner_id его задач
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id")
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    @JsonIgnore
+    private User owner; // Владелец задачи
+
     /**
      * Конструктор без параметров для создания экземпляра задачи.
      */
@@ -50,8 +122,8 @@ public class Task {
      * @param deadline    Дата дедлайна задачи.
      * @param comments    Список комментариев к задаче.
      */
-    public Task(Long taskId, String title, String description, String status,
-                String priority, LocalDate createdDate, LocalDate deadline,
+    public Task(Long taskId, String title, String description, TaskStatus status,
+                TaskPriority priority, LocalDate createdDate, LocalDate deadline,
                 List<String> comments) {
         this.taskId = taskId;
         this.title = title;
@@ -71,6 +143,22 @@ public class Task {
         this.taskId = taskId;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(Long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -87,19 +175,19 @@ public class Task {
         this.description = description;
     }
 
-    public String getStatus() {
+    public TaskStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(TaskStatus status) {
         this.status = status;
     }
 
-    public String getPriority() {
+    public TaskPriority getPriority() {
         return priority;
     }
 
-    public void setPriority(String priority) {
+    public void setPriority(TaskPriority priority) {
         this.priority = priority;
     }
 
@@ -126,4 +214,22 @@ public class Task {
     public void setComments(List<String> comments) {
         this.comments = comments;
     }
+
+    public User getOwner() {
+        return owner;
+    }
+
+    public void setOwner(User owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Возвращает идентификатор владельца задачи.
+     * Идентификатор берется из прокси без загрузки пользователя из базы данных.
+     *
+     * @return Идентификатор владельца или null, если владелец не задан.
+     */
+    public Long getOwnerId() {
+        return owner == null ? null : owner.getUserId();
+    }
 }
\ No newline at end of file
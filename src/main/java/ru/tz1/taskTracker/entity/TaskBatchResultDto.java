@@ -0,0 +1,75 @@
+package ru.tz1.taskTracker.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Класс DTO (Data Transfer Object) с результатом пакетного создания задач (POST /tasks/batch).
+ * Содержит результат для каждого элемента запроса в том же порядке.
+ */
+public class TaskBatchResultDto {
+    private final List<Item> items = new ArrayList<>(); // Результаты по элементам запроса
+
+    /**
+     * Добавляет результат успешно созданной задачи.
+     *
+     * @param index  Позиция задачи в запросе.
+     * @param taskId Идентификатор созданной задачи.
+     */
+    public void created(int index, Long taskId) {
+        items.add(new Item(index, taskId, null));
+    }
+
+    /**
+     * Добавляет результат отклоненной задачи.
+     *
+     * @param index Позиция задачи в запросе.
+     * @param error Причина отклонения.
+     */
+    public void rejected(int index, String error) {
+        items.add(new Item(index, null, error));
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public long getCreated() {
+        return items.stream().filter(Item::isCreated).count();
+    }
+
+    public long getRejected() {
+        return items.size() - getCreated();
+    }
+
+    /**
+     * Результат обработки одного элемента запроса.
+     */
+    public static class Item {
+        private final int index; // Позиция задачи в запросе
+        private final Long taskId; // Идентификатор созданной задачи или null
+        private final String error; // Причина отклонения или null
+
+        public Item(int index, Long taskId, String error) {
+            this.index = index;
+            this.taskId = taskId;
+            this.error = error;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Long getTaskId() {
+            return taskId;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean isCreated() {
+            return error == null;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ru.tz1.taskTracker.entity;
+
+import java.util.List;
+
+/**
+ * Класс DTO (Data Transfer Object) с изменениями задач после заданного номера изменения (GET /tasks/changes).
+ * Клиент применяет измененные задачи и удаления к своей копии и в следующий раз передает nextSince.
+ */
+public class TaskChangesDto {
+    private final List<Task> tasks; // Созданные и измененные задачи в порядке номера изменения
+    private final List<Long> deleted; // Идентификаторы удаленных задач
+    private final long nextSince; // Номер изменения для следующего запроса
+    private final boolean hasMore; // Есть ли еще изменения, не поместившиеся в ответ
+
+    /**
+     * Конструктор для создания ответа.
+     *
+     * @param tasks     Созданные и измененные задачи.
+     * @param deleted   Идентификаторы удаленных задач.
+     * @param nextSince Номер изменения для следующего запроса.
+     * @param hasMore   Есть ли еще изменения.
+     */
+    public TaskChangesDto(List<Task> tasks, List<Long> deleted, long nextSince, boolean hasMore) {
+        this.tasks = tasks;
+        this.deleted = deleted;
+        this.nextSince = nextSince;
+        this.hasMore = hasMore;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public List<Long> getDeleted() {
+        return deleted;
+    }
+
+    public long getNextSince() {
+        return nextSince;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
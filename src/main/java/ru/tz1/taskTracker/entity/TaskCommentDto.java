@@ -0,0 +1,31 @@
+package ru.tz1.taskTracker.entity;
+
+/**
+ * Класс DTO (Data Transfer Object) для добавления комментария к задаче (POST /tasks/{id}/comments).
+ */
+public class TaskCommentDto {
+    private String text; // Текст комментария
+
+    /**
+     * Конструктор без параметров для десериализации из JSON.
+     */
+    public TaskCommentDto() {
+    }
+
+    /**
+     * Конструктор для создания комментария с заданным текстом.
+     *
+     * @param text Текст комментария.
+     */
+    public TaskCommentDto(String text) {
+        this.text = text;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+}
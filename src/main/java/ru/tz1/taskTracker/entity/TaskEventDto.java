@@ -0,0 +1,87 @@
+package ru.tz1.taskTracker.entity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+/**
+ * Класс DTO (Data Transfer Object) с событием изменения задач для потока GET /tasks/stream.
+ * Клиент применяет событие к уже загруженному списку вместо повторной загрузки всех задач.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskEventDto {
+
+    /**
+     * Тип события. Совпадает с именем события SSE.
+     */
+    public enum Type {
+        CREATED, // Задача создана, в событии её текущее состояние
+        UPDATED, // Задача изменена, в событии её текущее состояние
+        DELETED, // Задача удалена, в событии только идентификатор
+        RESET; // Изменилось много задач сразу, список нужно загрузить заново
+
+        @JsonValue
+        public String getEventName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Type type; // Тип события
+    private final Long taskId; // Идентификатор задачи (null для RESET)
+    private final Long version; // Версия задачи после изменения
+    private final Task task; // Состояние задачи (только для CREATED и UPDATED)
+
+    private TaskEventDto(Type type, Long taskId, Long version, Task task) {
+        this.type = type;
+        this.taskId = taskId;
+        this.version = version;
+        this.task = task;
+    }
+
+    /**
+     * Создает событие о создании или изменении задачи.
+     *
+     * @param type Тип события (CREATED или UPDATED).
+     * @param task Задача после изменения.
+     * @return Событие.
+     */
+    public static TaskEventDto of(Type type, Task task) {
+        return new TaskEventDto(type, task.getTaskId(), task.getVersion(), task);
+    }
+
+    /**
+     * Создает событие об удалении задачи.
+     *
+     * @param taskId Идентификатор удаленной задачи.
+     * @return Событие.
+     */
+    public static TaskEventDto deleted(Long taskId) {
+        return new TaskEventDto(Type.DELETED, taskId, null, null);
+    }
+
+    /**
+     * Создает событие, после которого клиент должен заново загрузить список задач.
+     *
+     * @return Событие.
+     */
+    public static TaskEventDto reset() {
+        return new TaskEventDto(Type.RESET, null, null, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+}
@@ -0,0 +1,119 @@
+package ru.tz1.taskTracker.entity;
+
+import java.time.LocalDate;
+
+/**
+ * Класс, описывающий условия выборки списка задач: фильтры по владельцу, статусу, приоритету,
+ * диапазону дедлайна и порядок сортировки.
+ * Пустые (null) фильтры не ограничивают выборку.
+ */
+public class TaskFilter {
+
+    /**
+     * Поля, по которым допускается сортировка списка задач.
+     * Для каждого поля на сущности Task объявлен индекс, заканчивающийся task_id,
+     * поэтому постраничная выборка идёт по индексу без сортировки всей таблицы.
+     */
+    public enum SortField {
+        TASK_ID("taskId"),
+        DEADLINE("deadline"),
+        CREATED_DATE("createdDate");
+
+        private final String property; // Имя свойства сущности Task
+
+        SortField(String property) {
+            this.property = property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+    }
+
+    private Long ownerId; // Фильтр по владельцу задачи
+    private TaskStatus status; // Фильтр по статусу
+    private TaskPriority priority; // Фильтр по приоритету
+    private LocalDate deadlineFrom; // Нижняя граница дедлайна (включительно)
+    private LocalDate deadlineTo; // Верхняя граница дедлайна (включительно)
+    private SortField sortField = SortField.TASK_ID; // Поле сортировки
+    private boolean descending; // Сортировка по убыванию
+
+    /**
+     * Конструктор без фильтров: все задачи по возрастанию идентификатора.
+     */
+    public TaskFilter() {
+    }
+
+    /**
+     * Разбирает параметр сортировки вида "deadline" или "-deadline" (минус означает убывание).
+     *
+     * @param sort Строка сортировки (null или пустая строка означает сортировку по идентификатору).
+     * @return Текущий объект фильтра.
+     * @throws IllegalArgumentException если поле сортировки не поддерживается.
+     */
+    public TaskFilter withSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            this.sortField = SortField.TASK_ID;
+            this.descending = false;
+            return this;
+        }
+        String value = sort.trim();
+        this.descending = value.startsWith("-");
+        String property = descending ? value.substring(1) : value;
+        for (SortField field : SortField.values()) {
+            if (field.getProperty().equals(property)) {
+                this.sortField = field;
+                return this;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + sort);
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TaskStatus status) {
+        this.status = status;
+    }
+
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(TaskPriority priority) {
+        this.priority = priority;
+    }
+
+    public LocalDate getDeadlineFrom() {
+        return deadlineFrom;
+    }
+
+    public void setDeadlineFrom(LocalDate deadlineFrom) {
+        this.deadlineFrom = deadlineFrom;
+    }
+
+    public LocalDate getDeadlineTo() {
+        return deadlineTo;
+    }
+
+    public void setDeadlineTo(LocalDate deadlineTo) {
+        this.deadlineTo = deadlineTo;
+    }
+
+    public SortField getSortField() {
+        return sortField;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+}
@@ -0,0 +1,166 @@
+package ru.tz1.taskTracker.entity;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Класс DTO (Data Transfer Object) с состоянием импорта задач (POST /tasks/import).
+ * Обновляется потоком, выполняющим импорт, и может одновременно читаться запросами прогресса.
+ * Список ошибок по строкам ограничен, чтобы файл с ошибками в каждой строке не занимал память.
+ */
+public class TaskImportJob {
+
+    /**
+     * Состояние импорта.
+     */
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private final String jobId; // Идентификатор импорта
+    private final String format; // Формат входных данных
+    private final Long ownerId; // Владелец импортируемых задач
+    private final int maxErrors; // Максимальное количество сохраняемых ошибок
+    private final Instant startedAt = Instant.now(); // Время начала
+    private final List<RowError> errors = new ArrayList<>(); // Ошибки по строкам (не больше maxErrors)
+
+    private volatile Status status = Status.RUNNING;
+    private volatile Instant finishedAt; // Время окончания
+    private volatile long processedRows; // Прочитано строк данных
+    private volatile long importedRows; // Сохранено задач
+    private volatile long rejectedRows; // Отклонено строк
+    private volatile String message; // Причина сбоя импорта
+
+    /**
+     * Конструктор для создания нового импорта.
+     *
+     * @param jobId     Идентификатор импорта.
+     * @param format    Формат входных данных.
+     * @param ownerId   Идентификатор владельца импортируемых задач или null.
+     * @param maxErrors Максимальное количество сохраняемых ошибок по строкам.
+     */
+    public TaskImportJob(String jobId, String format, Long ownerId, int maxErrors) {
+        this.jobId = jobId;
+        this.format = format;
+        this.ownerId = ownerId;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Отмечает прочитанную строку данных.
+     */
+    public void rowProcessed() {
+        processedRows++; // Изменяется только потоком импорта
+    }
+
+    /**
+     * Отмечает сохраненные задачи.
+     *
+     * @param count Количество задач, сохраненных в очередной транзакции.
+     */
+    public void imported(int count) {
+        importedRows += count;
+    }
+
+    /**
+     * Отмечает отклоненную строку.
+     *
+     * @param row   Номер строки данных (начиная с 1).
+     * @param error Причина отклонения.
+     */
+    public void rejected(long row, String error) {
+        rejectedRows++;
+        synchronized (errors) {
+            if (errors.size() < maxErrors) {
+                errors.add(new RowError(row, error));
+            }
+        }
+    }
+
+    /**
+     * Завершает импорт.
+     *
+     * @param status  Итоговое состояние.
+     * @param message Причина сбоя или null.
+     */
+    public void finish(Status status, String message) {
+        this.message = message;
+        this.finishedAt = Instant.now();
+        this.status = status;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getProcessedRows() {
+        return processedRows;
+    }
+
+    public long getImportedRows() {
+        return importedRows;
+    }
+
+    public long getRejectedRows() {
+        return rejectedRows;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public List<RowError> getErrors() {
+        synchronized (errors) {
+            return new ArrayList<>(errors);
+        }
+    }
+
+    /**
+     * Проверяет, были ли ошибки, не попавшие в список из-за ограничения.
+     *
+     * @return true, если список ошибок неполный.
+     */
+    public boolean isErrorsTruncated() {
+        return rejectedRows > getErrors().size();
+    }
+
+    /**
+     * Ошибка в одной строке входных данных.
+     */
+    public static class RowError {
+        private final long row; // Номер строки данных (начиная с 1)
+        private final String error; // Причина отклонения
+
+        public RowError(long row, String error) {
+            this.row = row;
+            this.error = error;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package ru.tz1.taskTracker.entity;
+
+import java.util.List;
+
+/**
+ * Класс DTO (Data Transfer Object) для постраничной выдачи задач.
+ * Содержит задачи текущей страницы и курсор для запроса следующей страницы.
+ */
+public class TaskPageDto<T> {
+    private final List<T> tasks; // Задачи текущей страницы
+    private final String nextCursor; // Курсор следующей страницы или null, если страница последняя
+
+    /**
+     * Конструктор для создания страницы задач.
+     *
+     * @param tasks      Задачи текущей страницы.
+     * @param nextCursor Курсор следующей страницы или null, если данных больше нет.
+     */
+    public TaskPageDto(List<T> tasks, String nextCursor) {
+        this.tasks = tasks;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Получает задачи текущей страницы.
+     *
+     * @return Список задач.
+     */
+    public List<T> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Получает курсор следующей страницы.
+     *
+     * @return Курсор или null, если страница последняя.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Проверяет, есть ли ещё страницы.
+     *
+     * @return true, если можно запросить следующую страницу.
+     */
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,65 @@
+package ru.tz1.taskTracker.entity;
+
+import java.time.LocalDate;
+
+/**
+ * Класс DTO (Data Transfer Object) для частичного обновления задачи (PATCH /tasks/{id}).
+ * Поля со значением null не изменяются. Комментарии изменяются отдельными запросами
+ * к /tasks/{id}/comments и в этот объект не входят.
+ */
+public class TaskPatchDto {
+    private String title; // Новый заголовок задачи
+    private String description; // Новое описание задачи
+    private TaskStatus status; // Новый статус задачи
+    private TaskPriority priority; // Новый приоритет задачи
+    private LocalDate createdDate; // Новая дата создания
+    private LocalDate deadline; // Новая дата дедлайна
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TaskStatus status) {
+        this.status = status;
+    }
+
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(TaskPriority priority) {
+        this.priority = priority;
+    }
+
+    public LocalDate getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(LocalDate createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public LocalDate getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(LocalDate deadline) {
+        this.deadline = deadline;
+    }
+}
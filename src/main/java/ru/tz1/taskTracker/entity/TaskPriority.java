@@ -0,0 +1,69 @@
+package ru.tz1.taskTracker.entity;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Приоритет задачи. В базе данных хранится числовой код (столбец priority_code), в JSON — русское название.
+ * Коды возрастают вместе с важностью, поэтому сортировка по коду совпадает с сортировкой по приоритету.
+ */
+public enum TaskPriority {
+    LOW(1, "низкий"),
+    MEDIUM(2, "средний"),
+    HIGH(3, "высокий");
+
+    private final int code; // Код в базе данных; не меняется после выпуска
+    private final String label; // Название для пользователя и JSON
+
+    TaskPriority(int code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    @JsonValue
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Находит приоритет по коду из базы данных.
+     *
+     * @param code Код приоритета.
+     * @return Приоритет.
+     * @throws IllegalArgumentException если код неизвестен.
+     */
+    public static TaskPriority fromCode(int code) {
+        for (TaskPriority priority : values()) {
+            if (priority.code == code) {
+                return priority;
+            }
+        }
+        throw new IllegalArgumentException("Unknown task priority code: " + code);
+    }
+
+    /**
+     * Разбирает приоритет из запроса: принимает название ("высокий"), имя константы (HIGH) или код (3).
+     *
+     * @param value Строковое значение (null или пустая строка дают null).
+     * @return Приоритет или null.
+     * @throws IllegalArgumentException если значение не соответствует ни одному приоритету.
+     */
+    @JsonCreator
+    public static TaskPriority fromValue(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String normalized = value.trim();
+        for (TaskPriority priority : values()) {
+            if (priority.label.equalsIgnoreCase(normalized) || priority.name().equalsIgnoreCase(normalized)
+                    || String.valueOf(priority.code).equals(normalized)) {
+                return priority;
+            }
+        }
+        throw new IllegalArgumentException("Unknown task priority: " + value);
+    }
+}
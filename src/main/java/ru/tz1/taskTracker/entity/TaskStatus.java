@@ -0,0 +1,69 @@
+package ru.tz1.taskTracker.entity;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Статус задачи. В базе данных хранится числовой код (столбец status_code), в JSON — русское название,
+ * как и до перехода на коды, поэтому клиенты продолжают отправлять и получать "в ожидании" и т.п.
+ */
+public enum TaskStatus {
+    WAITING(1, "в ожидании"),
+    IN_PROGRESS(2, "в процессе"),
+    DONE(3, "завершено");
+
+    private final int code; // Код в базе данных; не меняется после выпуска
+    private final String label; // Название для пользователя и JSON
+
+    TaskStatus(int code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    @JsonValue
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Находит статус по коду из базы данных.
+     *
+     * @param code Код статуса.
+     * @return Статус.
+     * @throws IllegalArgumentException если код неизвестен.
+     */
+    public static TaskStatus fromCode(int code) {
+        for (TaskStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown task status code: " + code);
+    }
+
+    /**
+     * Разбирает статус из запроса: принимает название ("в процессе"), имя константы (IN_PROGRESS) или код (2).
+     *
+     * @param value Строковое значение (null или пустая строка дают null).
+     * @return Статус или null.
+     * @throws IllegalArgumentException если значение не соответствует ни одному статусу.
+     */
+    @JsonCreator
+    public static TaskStatus fromValue(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String normalized = value.trim();
+        for (TaskStatus status : values()) {
+            if (status.label.equalsIgnoreCase(normalized) || status.name().equalsIgnoreCase(normalized)
+                    || String.valueOf(status.code).equals(normalized)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown task status: " + value);
+    }
+}
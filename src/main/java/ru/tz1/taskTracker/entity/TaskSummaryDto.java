@@ -0,0 +1,82 @@
+package ru.tz1.taskTracker.entity;
+
+import java.time.LocalDate;
+
+/**
+ * Класс DTO (Data Transfer Object) для краткого представления задачи в списках.
+ * Вместо самих комментариев содержит только их количество, поэтому загружается
+ * одним запросом без обращения к таблице task_comments за каждой задачей.
+ */
+public class TaskSummaryDto {
+
+    /**
+     * Регион кэша запросов для страниц кратких представлений задач.
+     */
+    public static final String QUERY_CACHE_REGION = "task.summaries";
+
+    private final Long taskId; // Идентификатор задачи
+    private final String title; // Заголовок задачи
+    private final String description; // Описание задачи
+    private final TaskStatus status; // Статус задачи
+    private final TaskPriority priority; // Приоритет задачи
+    private final LocalDate createdDate; // Дата создания
+    private final LocalDate deadline; // Дата дедлайна
+    private final int commentCount; // Количество комментариев
+
+    /**
+     * Конструктор, используемый в JPQL-проекции (select new ...).
+     *
+     * @param taskId       Идентификатор задачи.
+     * @param title        Заголовок задачи.
+     * @param description  Описание задачи.
+     * @param status       Статус задачи.
+     * @param priority     Приоритет задачи.
+     * @param createdDate  Дата создания задачи.
+     * @param deadline     Дата дедлайна задачи.
+     * @param commentCount Количество комментариев к задаче.
+     */
+    public TaskSummaryDto(Long taskId, String title, String description, TaskStatus status,
+                          TaskPriority priority, LocalDate createdDate, LocalDate deadline,
+                          Number commentCount) {
+        this.taskId = taskId;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.priority = priority;
+        this.createdDate = createdDate;
+        this.deadline = deadline;
+        this.commentCount = commentCount == null ? 0 : commentCount.intValue();
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public LocalDate getCreatedDate() {
+        return createdDate;
+    }
+
+    public LocalDate getDeadline() {
+        return deadline;
+    }
+
+    public int getCommentCount() {
+        return commentCount;
+    }
+}
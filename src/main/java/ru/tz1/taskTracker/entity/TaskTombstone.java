@@ -0,0 +1,44 @@
+package ru.tz1.taskTracker.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись об удаленной задаче для синхронизации изменений (GET /tasks/changes).
+ * Клиент, синхронизирующийся по номеру изменения, узнает из неё, что задачу нужно удалить у себя.
+ */
+@Entity
+@Table(name = "task_tombstone", indexes = {
+        @Index(name = "idx_task_tombstone_change_seq", columnList = "change_seq, task_id")
+})
+public class TaskTombstone {
+
+    @Id
+    @Column(name = "task_id")
+    private Long taskId; // Идентификатор удаленной задачи
+
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq; // Номер изменения, которым задача удалена
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt; // Время удаления
+
+    /**
+     * Конструктор без параметров, требуемый для JPA.
+     */
+    public TaskTombstone() {
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+}
@@ -1,15 +1,25 @@
 package ru.tz1.taskTracker.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Класс, представляющий сущность пользователя в приложении Task Tracker.
  * Содержит информацию об идентификаторе, имени, email, пароле и роли пользователя.
+ * Пользователи хранятся в кэше второго уровня Hibernate (см. HibernateCacheConfig).
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
 @Table(name = "users")
 public class User {
 
+    /**
+     * Регион кэша второго уровня для пользователей.
+     */
+    public static final String CACHE_REGION = "user";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "user_id")
@@ -0,0 +1,28 @@
+package ru.tz1.taskTracker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Событие JFR: аутентификация запроса по JWT в JwtAuthenticationFilter целиком
+ * (разбор токена, загрузка пользователя, проверка). Вложенные фазы - события JwtParse и UserLookup.
+ */
+@Name("ru.tz1.taskTracker.Authentication")
+@Label("Request Authentication")
+@Category({"TaskTracker", "Authentication"})
+@Description("JWT authentication of an HTTP request in JwtAuthenticationFilter")
+@StackTrace(false)
+@Threshold("1 ms")
+public class AuthenticationEvent extends Event {
+
+    @Label("Request URI")
+    public String uri; // Путь запроса
+
+    @Label("Outcome")
+    public String outcome; // success, rejected или error
+}
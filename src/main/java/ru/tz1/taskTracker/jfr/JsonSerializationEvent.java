@@ -0,0 +1,27 @@
+package ru.tz1.taskTracker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Событие JFR: сериализация тела HTTP-ответа в JSON (Jackson) с записью в поток ответа.
+ */
+@Name("ru.tz1.taskTracker.JsonSerialization")
+@Label("JSON Serialization")
+@Category({"TaskTracker", "Web"})
+@Description("Jackson serialization of an HTTP response body")
+@StackTrace(false)
+@Threshold("1 ms")
+public class JsonSerializationEvent extends Event {
+
+    @Label("Body Type")
+    public String type; // Простое имя класса тела ответа
+
+    @Label("Row Count")
+    public int rowCount; // Количество задач или элементов в теле (1 для одиночного объекта)
+}
@@ -0,0 +1,27 @@
+package ru.tz1.taskTracker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Событие JFR: получение утверждений JWT в JwtUtil.extractClaims (из кэша или с проверкой подписи и разбором).
+ */
+@Name("ru.tz1.taskTracker.JwtParse")
+@Label("JWT Parse")
+@Category({"TaskTracker", "Authentication"})
+@Description("JWT claims extraction: cache lookup, signature check and parsing")
+@StackTrace(false)
+@Threshold("1 ms")
+public class JwtParseEvent extends Event {
+
+    @Label("Cache Hit")
+    public boolean cacheHit; // Утверждения взяты из кэша без разбора токена
+
+    @Label("Valid")
+    public boolean valid; // Токен прошел проверку подписи и срока действия
+}
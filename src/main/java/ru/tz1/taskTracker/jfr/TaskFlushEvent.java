@@ -0,0 +1,30 @@
+package ru.tz1.taskTracker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Событие JFR: сброс изменений задачи в базу данных (Hibernate flush) при обновлении задачи.
+ */
+@Name("ru.tz1.taskTracker.TaskFlush")
+@Label("Task Flush")
+@Category({"TaskTracker", "Persistence"})
+@Description("Hibernate flush of task changes in TaskService")
+@StackTrace(false)
+@Threshold("1 ms")
+public class TaskFlushEvent extends Event {
+
+    @Label("Operation")
+    public String operation; // update, patch или createBatch
+
+    @Label("Task Id")
+    public long taskId; // Идентификатор задачи (0 для пакетного создания)
+
+    @Label("Row Count")
+    public int rowCount; // Количество задач в сбросе
+}
@@ -0,0 +1,27 @@
+package ru.tz1.taskTracker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Событие JFR: загрузка данных пользователя для аутентификации в CustomUserDetailsService.
+ */
+@Name("ru.tz1.taskTracker.UserLookup")
+@Label("User Lookup")
+@Category({"TaskTracker", "Authentication"})
+@Description("User details lookup for request authentication (cache or users table)")
+@StackTrace(false)
+@Threshold("1 ms")
+public class UserLookupEvent extends Event {
+
+    @Label("Cache Hit")
+    public boolean cacheHit; // Пользователь найден в кэше, база данных не читалась
+
+    @Label("User Id")
+    public long userId; // Идентификатор пользователя (0, если не найден)
+}
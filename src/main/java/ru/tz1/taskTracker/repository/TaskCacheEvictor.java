@@ -0,0 +1,62 @@
+package ru.tz1.taskTracker.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.tz1.taskTracker.entity.Task;
+import ru.tz1.taskTracker.entity.TaskSummaryDto;
+
+/**
+ * Удаляет отдельные задачи из кэша второго уровня Hibernate после изменений, сделанных в обход Hibernate
+ * (запросы комментариев и увеличения версии в {@link TaskRepositoryCustom}). Регионы задач и комментариев
+ * при этом не очищаются: удаляются только запись задачи и набор её комментариев.
+ * Кэшированные страницы задач хранят только идентификаторы, которые от этих изменений не зависят,
+ * а страницы кратких представлений содержат количество комментариев, поэтому их регион очищается.
+ * Записи удаляются сразу, чтобы текущая транзакция прочитала задачу из базы, и повторно после
+ * завершения транзакции: параллельный запрос мог положить в кэш состояние, прочитанное до фиксации.
+ */
+@Component
+public class TaskCacheEvictor {
+
+    private static final String COMMENTS_ROLE = Task.class.getName() + ".comments"; // Роль коллекции комментариев
+
+    private final Cache cache;
+
+    /**
+     * Конструктор.
+     *
+     * @param entityManagerFactory Фабрика EntityManager, из которой берется кэш второго уровня.
+     */
+    @Autowired
+    public TaskCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    /**
+     * Удаляет задачу, её комментарии и страницы кратких представлений из кэша сейчас
+     * и после завершения текущей транзакции.
+     *
+     * @param taskId Идентификатор задачи.
+     */
+    public void evictTask(Long taskId) {
+        evictNow(taskId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(taskId);
+                }
+            });
+        }
+    }
+
+    private void evictNow(Long taskId) {
+        cache.evictEntityData(Task.class, taskId);
+        cache.evictCollectionData(COMMENTS_ROLE, taskId);
+        cache.evictQueryRegion(TaskSummaryDto.QUERY_CACHE_REGION);
+    }
+}
@@ -0,0 +1,66 @@
+package ru.tz1.taskTracker.repository;
+
+import ru.tz1.taskTracker.entity.TaskPriority;
+import ru.tz1.taskTracker.entity.TaskStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Строка выгрузки задач: поля задачи и один её комментарий.
+ * Задача с несколькими комментариями дает несколько строк подряд, задача без комментариев — одну строку
+ * с пустым комментарием. Строки не являются сущностями и не попадают в контекст персистентности.
+ */
+public class TaskExportRow {
+    private final Long taskId;
+    private final String title;
+    private final String description;
+    private final TaskStatus status;
+    private final TaskPriority priority;
+    private final LocalDate createdDate;
+    private final LocalDate deadline;
+    private final String comment; // Комментарий или null
+
+    public TaskExportRow(Long taskId, String title, String description, TaskStatus status, TaskPriority priority,
+                         LocalDate createdDate, LocalDate deadline, String comment) {
+        this.taskId = taskId;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.priority = priority;
+        this.createdDate = createdDate;
+        this.deadline = deadline;
+        this.comment = comment;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public LocalDate getCreatedDate() {
+        return createdDate;
+    }
+
+    public LocalDate getDeadline() {
+        return deadline;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+}
@@ -0,0 +1,90 @@
+package ru.tz1.taskTracker.repository;
+
+import ru.tz1.taskTracker.entity.TaskFilter;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Позиция в отсортированном списке задач для keyset-пагинации.
+ * Состоит из значения поля сортировки и идентификатора задачи, который делает позицию уникальной.
+ * В курсоре позиция кодируется как "42" при сортировке по идентификатору
+ * и как "2024-05-01_42" (или "_42" для пустой даты) при сортировке по дате.
+ */
+public final class TaskKeyset {
+
+    private final LocalDate sortValue; // Значение поля сортировки (null для сортировки по идентификатору или пустой даты)
+    private final long taskId; // Идентификатор задачи
+
+    private TaskKeyset(LocalDate sortValue, long taskId) {
+        this.sortValue = sortValue;
+        this.taskId = taskId;
+    }
+
+    /**
+     * Создает позицию по значениям полей задачи.
+     *
+     * @param taskId      Идентификатор задачи.
+     * @param createdDate Дата создания задачи.
+     * @param deadline    Дата дедлайна задачи.
+     * @param sortField   Поле сортировки.
+     * @return Позиция задачи в списке.
+     */
+    public static TaskKeyset of(Long taskId, LocalDate createdDate, LocalDate deadline, TaskFilter.SortField sortField) {
+        LocalDate value = switch (sortField) {
+            case TASK_ID -> null;
+            case DEADLINE -> deadline;
+            case CREATED_DATE -> createdDate;
+        };
+        return new TaskKeyset(value, taskId);
+    }
+
+    /**
+     * Разбирает курсор, полученный клиентом с предыдущей страницы.
+     *
+     * @param cursor    Строковый курсор (null или пустая строка — начало списка).
+     * @param sortField Поле сортировки, для которого был выдан курсор.
+     * @return Позиция или null, если курсор не указан.
+     * @throws IllegalArgumentException если курсор имеет неверный формат.
+     */
+    public static TaskKeyset parse(String cursor, TaskFilter.SortField sortField) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String value = cursor.trim();
+        try {
+            if (sortField == TaskFilter.SortField.TASK_ID) {
+                return new TaskKeyset(null, Long.parseLong(value));
+            }
+            int separator = value.lastIndexOf('_');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            LocalDate date = separator == 0 ? null : LocalDate.parse(value.substring(0, separator));
+            return new TaskKeyset(date, Long.parseLong(value.substring(separator + 1)));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Кодирует позицию в строковый курсор.
+     *
+     * @param sortField Поле сортировки.
+     * @return Строковый курсор.
+     */
+    public String encode(TaskFilter.SortField sortField) {
+        if (sortField == TaskFilter.SortField.TASK_ID) {
+            return String.valueOf(taskId);
+        }
+        return (sortValue == null ? "" : sortValue.toString()) + "_" + taskId;
+    }
+
+    public LocalDate getSortValue() {
+        return sortValue;
+    }
+
+    public long getTaskId() {
+        return taskId;
+    }
+}
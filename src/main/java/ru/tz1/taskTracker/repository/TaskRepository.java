@@ -1,15 +1,70 @@
 package ru.tz1.taskTracker.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.tz1.taskTracker.entity.Task;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Репозиторий для управления задачами в приложении Task Tracker.
  * Обеспечивает операции доступа к данным для сущности Task,
- * включая CRUD операции.
+ * включая CRUD операции, постраничную выборку с фильтрами и изменение комментариев (см. {@link TaskRepositoryCustom}).
  */
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
-    // JpaRepository предоставляет все необходимые методы для работы с сущностью Task.
-}
\ No newline at end of file
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
+
+    /**
+     * Возвращает версию задачи по первичному ключу, не загружая саму задачу.
+     *
+     * @param taskId Идентификатор задачи.
+     * @return Версия задачи или пустой Optional, если задачи нет.
+     */
+    @Query("select t.version from Task t where t.taskId = :taskId")
+    Optional<Long> findVersionById(@Param("taskId") Long taskId);
+
+    /**
+     * Увеличивает версии задач перечисленных владельцев перед их удалением:
+     * база данных обнулит owner_id этих задач, и их представление изменится.
+     *
+     * @param ownerIds  Идентификаторы удаляемых пользователей.
+     * @param changeSeq Номер изменения.
+     * @return Количество измененных задач.
+     */
+    @Modifying
+    @Query("update Task t set t.version = t.version + 1, t.changeSeq = :changeSeq where t.owner.userId in :ownerIds")
+    int incrementVersionByOwnerIds(@Param("ownerIds") Collection<Long> ownerIds, @Param("changeSeq") long changeSeq);
+
+    /**
+     * Находит задачи с номером изменения в диапазоне (since, upTo] по индексу номера изменения.
+     *
+     * @param since Номер изменения, после которого нужны задачи.
+     * @param upTo  Наибольший номер изменения (включительно).
+     * @param limit Максимальное количество задач.
+     * @return Задачи в порядке номера изменения.
+     */
+    @Query("select t from Task t where t.changeSeq > :since and t.changeSeq <= :upTo order by t.changeSeq, t.taskId")
+    List<Task> findChanged(@Param("since") long since, @Param("upTo") long upTo, Limit limit);
+
+    /**
+     * Находит все задачи с заданным номером изменения.
+     *
+     * @param changeSeq Номер изменения.
+     * @return Задачи в порядке идентификатора.
+     */
+    List<Task> findByChangeSeqOrderByTaskId(Long changeSeq);
+
+    /**
+     * Возвращает наибольший номер изменения среди задач.
+     *
+     * @return Номер изменения или null, если задач нет.
+     */
+    @Query("select max(t.changeSeq) from Task t")
+    Long findMaxChangeSeq();
+}
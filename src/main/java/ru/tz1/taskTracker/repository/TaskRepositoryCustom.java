@@ -0,0 +1,84 @@
+package ru.tz1.taskTracker.repository;
+
+import ru.tz1.taskTracker.entity.Task;
+import ru.tz1.taskTracker.entity.TaskFilter;
+import ru.tz1.taskTracker.entity.TaskSummaryDto;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Дополнительные методы репозитория задач, которые строят запрос динамически
+ * по набору фильтров и сортировке, а также изменяют комментарии и версию задачи отдельными строками.
+ */
+public interface TaskRepositoryCustom {
+
+    /**
+     * Находит страницу задач, удовлетворяющих фильтру, после указанной позиции.
+     *
+     * @param filter    Фильтры и сортировка.
+     * @param after     Позиция последней задачи предыдущей страницы (null для первой страницы).
+     * @param limit     Максимальное количество задач.
+     * @param cacheable Сохранять ли результат в кэше запросов. Имеет смысл только для часто повторяющихся
+     *                  запросов (первые страницы списка и фильтров): страницы после курсора почти не повторяются
+     *                  и вытеснили бы из ограниченного кэша полезные результаты.
+     * @return Список задач в порядке сортировки.
+     */
+    List<Task> findPage(TaskFilter filter, TaskKeyset after, int limit, boolean cacheable);
+
+    /**
+     * Находит страницу кратких представлений задач (без комментариев, только их количество).
+     *
+     * @param filter    Фильтры и сортировка.
+     * @param after     Позиция последней задачи предыдущей страницы (null для первой страницы).
+     * @param limit     Максимальное количество задач.
+     * @param cacheable Сохранять ли результат в кэше запросов (см. {@link #findPage}).
+     * @return Список кратких представлений задач в порядке сортировки.
+     */
+    List<TaskSummaryDto> findSummaryPage(TaskFilter filter, TaskKeyset after, int limit, boolean cacheable);
+
+    /**
+     * Читает все задачи с комментариями в порядке идентификаторов однонаправленным курсором базы данных.
+     * Поток нужно закрыть и читать внутри транзакции.
+     *
+     * @param fetchSize Количество строк, получаемых драйвером из базы за одно обращение.
+     * @return Поток строк выгрузки, сгруппированных по задачам.
+     */
+    Stream<TaskExportRow> streamExportRows(int fetchSize);
+
+    /**
+     * Увеличивает версию задачи и назначает ей номер изменения при изменениях, сделанных в обход
+     * сущности (например, комментариев). Контекст персистентности очищается, чтобы в нем
+     * не осталась задача со старой версией.
+     * Запрос выполняется на соединении сессии, а не как запрос Hibernate: для массового или нативного
+     * запроса Hibernate очистил бы регионы кэша второго уровня целиком. Вызывающий код удаляет
+     * из кэша только эту задачу через {@link TaskCacheEvictor}.
+     *
+     * @param taskId    Идентификатор задачи.
+     * @param changeSeq Номер изменения.
+     * @return Количество измененных строк (0, если задачи нет).
+     */
+    int incrementVersion(Long taskId, long changeSeq);
+
+    /**
+     * Добавляет комментарий к задаче одной вставкой строки, не загружая задачу и её комментарии.
+     * Строка вставляется только если задача существует. Кэш комментариев задачи вызывающий код
+     * удаляет через {@link TaskCacheEvictor}.
+     *
+     * @param taskId Идентификатор задачи.
+     * @param text   Текст комментария.
+     * @return Количество добавленных строк (0, если задачи нет).
+     */
+    int addComment(Long taskId, String text);
+
+    /**
+     * Удаляет комментарий задачи одним запросом. Комментарии хранятся без собственного идентификатора,
+     * поэтому одинаковые комментарии одной задачи удаляются вместе. Кэш комментариев задачи
+     * вызывающий код удаляет через {@link TaskCacheEvictor}.
+     *
+     * @param taskId Идентификатор задачи.
+     * @param text   Текст удаляемого комментария.
+     * @return Количество удаленных строк (0, если задачи или комментария нет).
+     */
+    int removeComment(Long taskId, String text);
+}
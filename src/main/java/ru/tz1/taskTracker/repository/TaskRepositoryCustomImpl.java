@@ -0,0 +1,199 @@
+package ru.tz1.taskTracker.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import ru.tz1.taskTracker.entity.Task;
+import ru.tz1.taskTracker.entity.TaskFilter;
+import ru.tz1.taskTracker.entity.TaskSummaryDto;
+
+import java.sql.PreparedStatement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Реализация динамических запросов к задачам.
+ * Условия фильтров и keyset-пагинации добавляются в JPQL только тогда, когда они заданы,
+ * а порядок сортировки всегда совпадает с одним из индексов, объявленных на сущности Task.
+ * Пустые даты (NULL) считаются меньше любых значений, как это принято в H2 и MySQL.
+ * Результаты часто повторяющихся запросов страниц хранятся в кэше запросов Hibernate (см. HibernateCacheConfig).
+ */
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    private static final String SUMMARY_SELECT = "select new ru.tz1.taskTracker.entity.TaskSummaryDto(" +
+            "t.taskId, t.title, t.description, t.status, t.priority, t.createdDate, t.deadline, size(t.comments)) ";
+
+    private static final String EXPORT_QUERY = "select new ru.tz1.taskTracker.repository.TaskExportRow(" +
+            "t.taskId, t.title, t.description, t.status, t.priority, t.createdDate, t.deadline, c) " +
+            "from Task t left join t.comments c order by t.taskId";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Task> findPage(TaskFilter filter, TaskKeyset after, int limit, boolean cacheable) {
+        TypedQuery<Task> query = createQuery("select t ", Task.class, filter, after, limit);
+        if (cacheable) {
+            // Страницы задач кэшируются до первого изменения таблицы task
+            query.setHint(HibernateHints.HINT_CACHEABLE, true);
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public List<TaskSummaryDto> findSummaryPage(TaskFilter filter, TaskKeyset after, int limit, boolean cacheable) {
+        TypedQuery<TaskSummaryDto> query = createQuery(SUMMARY_SELECT, TaskSummaryDto.class, filter, after, limit);
+        if (cacheable) {
+            // Количество комментариев меняется запросами в обход Hibernate, поэтому краткие представления
+            // хранятся в отдельном регионе, который TaskCacheEvictor очищает при изменении комментариев
+            query.setHint(HibernateHints.HINT_CACHEABLE, true);
+            query.setHint(HibernateHints.HINT_CACHE_REGION, TaskSummaryDto.QUERY_CACHE_REGION);
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public int incrementVersion(Long taskId, long changeSeq) {
+        int updated = executeUpdate("update task set version = version + 1, change_seq = ? where task_id = ?",
+                changeSeq, taskId);
+        entityManager.clear();
+        return updated;
+    }
+
+    @Override
+    public int addComment(Long taskId, String text) {
+        return executeUpdate("insert into task_comments (task_id, comments) select t.task_id, ? from task t where t.task_id = ?",
+                text, taskId);
+    }
+
+    @Override
+    public int removeComment(Long taskId, String text) {
+        return executeUpdate("delete from task_comments where task_id = ? and comments = ?", taskId, text);
+    }
+
+    @Override
+    public Stream<TaskExportRow> streamExportRows(int fetchSize) {
+        // Проекция вместо сущностей: строки не накапливаются в контексте персистентности
+        return entityManager.createQuery(EXPORT_QUERY, TaskExportRow.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    /**
+     * Строит запрос с условиями фильтра, keyset-условием и сортировкой.
+     *
+     * @param select      Часть запроса select.
+     * @param resultClass Тип результата.
+     * @param filter      Фильтры и сортировка.
+     * @param after       Позиция последней задачи предыдущей страницы (может быть null).
+     * @param limit       Максимальное количество строк.
+     * @return Подготовленный запрос.
+     */
+    private <R> TypedQuery<R> createQuery(String select, Class<R> resultClass, TaskFilter filter,
+                                          TaskKeyset after, int limit) {
+        StringBuilder jpql = new StringBuilder(select).append("from Task t where 1 = 1");
+        Map<String, Object> parameters = new HashMap<>();
+
+        if (filter.getOwnerId() != null) {
+            // Внешний ключ owner_id сравнивается без соединения с таблицей users
+            jpql.append(" and t.owner.userId = :ownerId");
+            parameters.put("ownerId", filter.getOwnerId());
+        }
+        if (filter.getStatus() != null) {
+            jpql.append(" and t.status = :status");
+            parameters.put("status", filter.getStatus());
+        }
+        if (filter.getPriority() != null) {
+            jpql.append(" and t.priority = :priority");
+            parameters.put("priority", filter.getPriority());
+        }
+        if (filter.getDeadlineFrom() != null) {
+            jpql.append(" and t.deadline >= :deadlineFrom");
+            parameters.put("deadlineFrom", filter.getDeadlineFrom());
+        }
+        if (filter.getDeadlineTo() != null) {
+            jpql.append(" and t.deadline <= :deadlineTo");
+            parameters.put("deadlineTo", filter.getDeadlineTo());
+        }
+        if (after != null) {
+            appendKeysetCondition(jpql, parameters, filter, after);
+        }
+        appendOrderBy(jpql, filter);
+
+        TypedQuery<R> query = entityManager.createQuery(jpql.toString(), resultClass);
+        parameters.forEach(query::setParameter);
+        query.setMaxResults(limit);
+        return query;
+    }
+
+    /**
+     * Выполняет изменяющий SQL-запрос на соединении текущей сессии. В отличие от нативного запроса
+     * Hibernate, он не очищает регионы кэша второго уровня; ожидающие изменения сессии отправляются заранее.
+     *
+     * @param sql        SQL-запрос с параметрами "?".
+     * @param parameters Значения параметров по порядку.
+     * @return Количество измененных строк.
+     */
+    private int executeUpdate(String sql, Object... parameters) {
+        entityManager.flush();
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+                return statement.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * Добавляет условие "строго после позиции" для текущего порядка сортировки.
+     */
+    private void appendKeysetCondition(StringBuilder jpql, Map<String, Object> parameters,
+                                       TaskFilter filter, TaskKeyset after) {
+        String idOperator = filter.isDescending() ? "<" : ">";
+        parameters.put("afterId", after.getTaskId());
+
+        if (filter.getSortField() == TaskFilter.SortField.TASK_ID) {
+            jpql.append(" and t.taskId ").append(idOperator).append(" :afterId");
+            return;
+        }
+
+        String field = "t." + filter.getSortField().getProperty();
+        if (after.getSortValue() == null) {
+            // Позиция находится среди задач с пустой датой
+            if (filter.isDescending()) {
+                jpql.append(" and ").append(field).append(" is null and t.taskId < :afterId");
+            } else {
+                jpql.append(" and (").append(field).append(" is not null or t.taskId > :afterId)");
+            }
+            return;
+        }
+
+        parameters.put("afterValue", after.getSortValue());
+        jpql.append(" and (").append(field).append(' ').append(idOperator).append(" :afterValue")
+                .append(" or (").append(field).append(" = :afterValue and t.taskId ").append(idOperator).append(" :afterId)");
+        if (filter.isDescending()) {
+            // При убывании пустые даты идут в конце списка
+            jpql.append(" or ").append(field).append(" is null");
+        }
+        jpql.append(')');
+    }
+
+    /**
+     * Добавляет сортировку по выбранному полю с идентификатором задачи в качестве уточняющего ключа.
+     */
+    private void appendOrderBy(StringBuilder jpql, TaskFilter filter) {
+        String direction = filter.isDescending() ? " desc" : " asc";
+        jpql.append(" order by ");
+        if (filter.getSortField() != TaskFilter.SortField.TASK_ID) {
+            jpql.append("t.").append(filter.getSortField().getProperty()).append(direction).append(", ");
+        }
+        jpql.append("t.taskId").append(direction);
+    }
+}
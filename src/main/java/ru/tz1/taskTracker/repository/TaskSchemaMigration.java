@@ -0,0 +1,213 @@
+package ru.tz1.taskTracker.repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.tz1.taskTracker.entity.Task;
+import ru.tz1.taskTracker.entity.TaskPriority;
+import ru.tz1.taskTracker.entity.TaskStatus;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Приводит существующую базу данных в соответствие с текущей схемой сущностей.
+ * Схему создает Hibernate (ddl-auto=update), но он только добавляет новые объекты и не переносит данные,
+ * поэтому переходы, требующие изменения данных, выполняются здесь.
+ * Выполняется при создании бина, то есть после инициализации Hibernate и до приема HTTP-запросов.
+ */
+@Component
+public class TaskSchemaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskSchemaMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    /**
+     * Конструктор миграции.
+     *
+     * @param dataSource           Источник данных приложения.
+     * @param entityManagerFactory Фабрика EntityManager; зависимость гарантирует, что схема уже обновлена Hibernate.
+     */
+    @Autowired
+    public TaskSchemaMigration(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Выполняет все шаги миграции. Каждый шаг идемпотентен и ничего не делает, если данные уже приведены.
+     */
+    @PostConstruct
+    public void migrate() {
+        alignTaskSequence();
+        migrateToCodes("status", "status_code", "idx_task_status_deadline",
+                TaskStatus.values(), TaskStatus::getLabel, TaskStatus::getCode, TaskStatus.WAITING.getCode());
+        migrateToCodes("priority", "priority_code", "idx_task_priority_deadline",
+                TaskPriority.values(), TaskPriority::getLabel, TaskPriority::getCode, TaskPriority.MEDIUM.getCode());
+        initializeVersions();
+        initializeChangeSeq();
+    }
+
+    /**
+     * Назначает номер изменения 1 задачам, сохраненным до появления столбца change_seq,
+     * чтобы первая синхронизация (since=0) вернула и их. Новые номера выдаются после наибольшего существующего.
+     */
+    private void initializeChangeSeq() {
+        int updated = jdbcTemplate.update("update task set change_seq = 1 where change_seq is null");
+        if (updated > 0) {
+            logger.info("Initialized change sequence of {} tasks", updated);
+        }
+    }
+
+    /**
+     * Заполняет версии задач, сохраненных до появления столбца version.
+     * Hibernate добавляет столбец без значений, а задачу с пустой версией нельзя обновить.
+     */
+    private void initializeVersions() {
+        int updated = jdbcTemplate.update("update task set version = 0 where version is null");
+        if (updated > 0) {
+            logger.info("Initialized version of {} tasks", updated);
+        }
+    }
+
+    /**
+     * Сдвигает последовательность task_seq за максимальный существующий идентификатор задачи.
+     * До перехода на последовательность идентификаторы выдавал столбец IDENTITY, и новая последовательность
+     * начинается с 1, что привело бы к конфликтам с уже сохраненными задачами.
+     */
+    private void alignTaskSequence() {
+        Long maxTaskId = jdbcTemplate.queryForObject("select max(task_id) from task", Long.class);
+        if (maxTaskId == null) {
+            return;
+        }
+        // Оптимизатор pooled выдает идентификаторы ниже полученного значения последовательности,
+        // поэтому значение должно быть больше максимального идентификатора на размер пачки
+        long required = maxTaskId + Task.ID_ALLOCATION_SIZE + 1;
+        String database = databaseProductName();
+        if (database.contains("H2")) {
+            Long next = jdbcTemplate.queryForObject("select next value for task_seq", Long.class);
+            if (next != null && next < required) {
+                jdbcTemplate.execute("alter sequence task_seq restart with " + required);
+                logger.info("Sequence task_seq moved from {} to {}", next, required);
+            }
+        } else if (database.contains("MySQL")) {
+            // MySQL не поддерживает последовательности, Hibernate эмулирует их таблицей task_seq
+            Long next = jdbcTemplate.queryForObject("select next_val from task_seq", Long.class);
+            if (next != null && next < required) {
+                jdbcTemplate.update("update task_seq set next_val = ?", required);
+                logger.info("Sequence table task_seq moved from {} to {}", next, required);
+            }
+        } else {
+            logger.warn("Sequence task_seq was not checked: unsupported database {}", database);
+        }
+    }
+
+    /**
+     * Переводит столбец с текстовым значением (статус или приоритет) на числовой код.
+     * Новый столбец с кодом создает Hibernate; здесь он заполняется по названиям из старого столбца,
+     * после чего старый столбец и его индекс удаляются, а новый столбец становится NOT NULL.
+     * Неизвестные названия получают код по умолчанию.
+     *
+     * @param oldColumn   Старый текстовый столбец.
+     * @param codeColumn  Новый столбец с кодом.
+     * @param oldIndex    Индекс, построенный по старому столбцу.
+     * @param values      Все значения перечисления.
+     * @param label       Название значения, хранившееся в старом столбце.
+     * @param code        Код значения.
+     * @param defaultCode Код для неизвестных названий.
+     */
+    private <E> void migrateToCodes(String oldColumn, String codeColumn, String oldIndex, E[] values,
+                                    Function<E, String> label, ToIntFunction<E> code, int defaultCode) {
+        if (columnExists("task", oldColumn)) {
+            // Значения берутся из констант перечисления, поэтому подставляются в запрос литералами
+            StringBuilder sql = new StringBuilder("update task set ").append(codeColumn).append(" = case ").append(oldColumn);
+            for (E value : values) {
+                sql.append(" when '").append(label.apply(value).replace("'", "''")).append("' then ")
+                        .append(code.applyAsInt(value));
+            }
+            sql.append(" else ").append(defaultCode).append(" end where ").append(codeColumn).append(" is null");
+            int updated = jdbcTemplate.update(sql.toString());
+
+            if (indexExists("task", oldIndex)) {
+                jdbcTemplate.execute(isH2() ? "drop index " + oldIndex : "drop index " + oldIndex + " on task");
+            }
+            jdbcTemplate.execute("alter table task drop column " + oldColumn);
+            logger.info("Column task.{} migrated to {}: {} rows", oldColumn, codeColumn, updated);
+        }
+
+        Long missing = jdbcTemplate.queryForObject(
+                "select count(*) from task where " + codeColumn + " is null", Long.class);
+        if (missing != null && missing == 0 && isNullable("task", codeColumn)) {
+            jdbcTemplate.execute(isH2()
+                    ? "alter table task alter column " + codeColumn + " set not null"
+                    : "alter table task modify " + codeColumn + " smallint not null");
+        }
+    }
+
+    private boolean columnExists(String table, String column) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet columns = metaData.getColumns(connection.getCatalog(), connection.getSchema(),
+                    identifier(metaData, table), identifier(metaData, column))) {
+                return columns.next();
+            }
+        }));
+    }
+
+    private boolean isNullable(String table, String column) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet columns = metaData.getColumns(connection.getCatalog(), connection.getSchema(),
+                    identifier(metaData, table), identifier(metaData, column))) {
+                return columns.next() && columns.getInt("NULLABLE") == DatabaseMetaData.columnNullable;
+            }
+        }));
+    }
+
+    private boolean indexExists(String table, String index) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(),
+                    identifier(metaData, table), false, true)) {
+                while (indexes.next()) {
+                    if (index.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }));
+    }
+
+    /**
+     * Приводит имя объекта к регистру, в котором база данных хранит идентификаторы без кавычек.
+     */
+    private static String identifier(DatabaseMetaData metaData, String name) throws SQLException {
+        return metaData.storesUpperCaseIdentifiers() ? name.toUpperCase(Locale.ROOT) : name;
+    }
+
+    private boolean isH2() {
+        return databaseProductName().contains("H2");
+    }
+
+    private String databaseProductName() {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getDatabaseProductName();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot read database metadata", e);
+        }
+    }
+}
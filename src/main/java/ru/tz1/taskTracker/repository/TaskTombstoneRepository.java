@@ -0,0 +1,65 @@
+package ru.tz1.taskTracker.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.tz1.taskTracker.entity.TaskTombstone;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Репозиторий записей об удаленных задачах, используемых синхронизацией изменений (GET /tasks/changes).
+ */
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    /**
+     * Добавляет запись об удаленной задаче одной вставкой, без предварительного чтения по первичному ключу.
+     * Запрос объявляет свою таблицу, чтобы Hibernate не очищал из-за него весь кэш второго уровня.
+     *
+     * @param taskId    Идентификатор удаленной задачи.
+     * @param changeSeq Номер изменения.
+     * @param deletedAt Время удаления.
+     * @return Количество добавленных строк.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_tombstone"))
+    @Query(value = "insert into task_tombstone (task_id, change_seq, deleted_at) values (:taskId, :changeSeq, :deletedAt)",
+            nativeQuery = true)
+    int insert(@Param("taskId") Long taskId, @Param("changeSeq") long changeSeq,
+               @Param("deletedAt") LocalDateTime deletedAt);
+
+    /**
+     * Находит удаления с номером изменения в диапазоне (since, upTo] по индексу номера изменения.
+     *
+     * @param since Номер изменения, после которого нужны удаления.
+     * @param upTo  Наибольший номер изменения (включительно).
+     * @param limit Максимальное количество записей.
+     * @return Удаления в порядке номера изменения.
+     */
+    @Query("select t from TaskTombstone t where t.changeSeq > :since and t.changeSeq <= :upTo order by t.changeSeq, t.taskId")
+    List<TaskTombstone> findChanged(@Param("since") long since, @Param("upTo") long upTo, Limit limit);
+
+    /**
+     * Находит все удаления с заданным номером изменения.
+     *
+     * @param changeSeq Номер изменения.
+     * @return Удаления в порядке идентификатора задачи.
+     */
+    List<TaskTombstone> findByChangeSeqOrderByTaskId(Long changeSeq);
+
+    /**
+     * Возвращает наибольший номер изменения среди удалений.
+     *
+     * @return Номер изменения или null, если удалений не было.
+     */
+    @Query("select max(t.changeSeq) from TaskTombstone t")
+    Long findMaxChangeSeq();
+}
@@ -1,6 +1,10 @@
 package ru.tz1.taskTracker.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.tz1.taskTracker.entity.User;
 
@@ -29,4 +33,48 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return Список пользователей, не имеющих указанной роли.
      */
     List<User> findByRoleNot(String role);
-}
\ No newline at end of file
+
+    /**
+     * Находит идентификаторы пользователей без указанной роли, следующие за указанным идентификатором.
+     * Используется для удаления пользователей порциями по первичному ключу.
+     *
+     * @param role    Роль, которую необходимо исключить.
+     * @param afterId Идентификатор, после которого начинается порция.
+     * @param limit   Максимальный размер порции.
+     * @return Идентификаторы пользователей в порядке возрастания.
+     */
+    @Query("select u.userId from User u where u.role <> :role and u.userId > :afterId order by u.userId")
+    List<Long> findIdsByRoleNot(@Param("role") String role, @Param("afterId") long afterId, Limit limit);
+
+    /**
+     * Находит идентификаторы всех пользователей, следующие за указанным идентификатором.
+     *
+     * @param afterId Идентификатор, после которого начинается порция.
+     * @param limit   Максимальный размер порции.
+     * @return Идентификаторы пользователей в порядке возрастания.
+     */
+    @Query("select u.userId from User u where u.userId > :afterId order by u.userId")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Limit limit);
+
+    /**
+     * Удаляет пользователей с указанными идентификаторами одним запросом, не загружая их.
+     * Роль проверяется повторно, чтобы не удалить пользователя, которому только что выдали эту роль.
+     *
+     * @param ids  Идентификаторы пользователей.
+     * @param role Роль, пользователей с которой удалять нельзя.
+     * @return Количество удаленных пользователей.
+     */
+    @Modifying
+    @Query("delete from User u where u.userId in :ids and u.role <> :role")
+    int deleteByIdsAndRoleNot(@Param("ids") List<Long> ids, @Param("role") String role);
+
+    /**
+     * Удаляет пользователей с указанными идентификаторами одним запросом, не загружая их.
+     *
+     * @param ids Идентификаторы пользователей.
+     * @return Количество удаленных пользователей.
+     */
+    @Modifying
+    @Query("delete from User u where u.userId in :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+}
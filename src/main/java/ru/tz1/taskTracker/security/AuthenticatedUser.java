@@ -0,0 +1,43 @@
+package ru.tz1.taskTracker.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Данные аутентифицированного пользователя вместе с его идентификатором в таблице users.
+ * Хранится в кэше CustomUserDetailsService и становится principal запроса, поэтому контроллеры
+ * получают идентификатор текущего пользователя без обращения к базе данных.
+ */
+public class AuthenticatedUser extends User {
+
+    private final Long userId; // Идентификатор пользователя
+
+    /**
+     * Конструктор данных пользователя.
+     *
+     * @param userId      Идентификатор пользователя.
+     * @param email       Электронная почта (имя пользователя).
+     * @param password    Хеш пароля.
+     * @param authorities Роли пользователя.
+     */
+    public AuthenticatedUser(Long userId, String email, String password,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(email, password, authorities);
+        this.userId = userId;
+    }
+
+    /**
+     * Создает копию данных пользователя, например, для выдачи из кэша.
+     *
+     * @param other Исходные данные пользователя.
+     */
+    public AuthenticatedUser(AuthenticatedUser other) {
+        this(other.userId, other.getUsername(), other.getPassword(), other.getAuthorities());
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+}
@@ -1,7 +1,10 @@
 package ru.tz1.taskTracker.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,10 +17,12 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.tz1.taskTracker.jfr.AuthenticationEvent;
 import ru.tz1.taskTracker.util.JwtUtil;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
@@ -26,11 +31,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final String secretKey;
     private final UserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
+    private final Timer successTimer; // Время проверки принятых токенов
+    private final Timer rejectedTimer; // Время проверки токенов, не прошедших проверку
+    private final Timer errorTimer; // Время проверки, завершившейся другой ошибкой
 
-    public JwtAuthenticationFilter(String secretKey, UserDetailsService userDetailsService, JwtUtil jwtUtil) {
+    public JwtAuthenticationFilter(String secretKey, UserDetailsService userDetailsService, JwtUtil jwtUtil,
+                                   MeterRegistry meterRegistry) {
         this.secretKey = secretKey;
         this.userDetailsService = userDetailsService;
         this.jwtUtil = jwtUtil;
+        // Таймеры создаются заранее, чтобы не искать их в реестре на каждый запрос
+        this.successTimer = validationTimer(meterRegistry, "success");
+        this.rejectedTimer = validationTimer(meterRegistry, "rejected");
+        this.errorTimer = validationTimer(meterRegistry, "error");
+    }
+
+    private Timer timerFor(String outcome) {
+        return switch (outcome) {
+            case "success" -> successTimer;
+            case "rejected" -> rejectedTimer;
+            default -> errorTimer;
+        };
+    }
+
+    private static Timer validationTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.jwt.validation")
+                .description("JWT validation and user lookup in JwtAuthenticationFilter")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
     @Override
@@ -46,7 +74,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        logger.info("Entering doFilter for request: {}", request.getRequestURI());
+        logger.debug("Entering doFilter for request: {}", path);
         String authHeader = request.getHeader("Authorization");
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             String tokenParam = request.getParameter("token");
@@ -54,39 +82,54 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 authHeader = "Bearer " + tokenParam;
             }
         }
-        logger.debug("Authorization Header is: {}", authHeader);
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            logger.info("Token received from frontend");
             String token = authHeader.substring(7).trim();
             if (token.isEmpty()) {
                 logger.warn("Bearer token is empty");
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 return;
             }
-            logger.info("Extracted Token: {}", token);
-            logger.info("Sending token to backend for verification");
+            long start = System.nanoTime();
+            String outcome = "error";
+            AuthenticationEvent event = new AuthenticationEvent();
+            event.begin();
             try {
-                String username = jwtUtil.extractUsername(token);
+                // Токен разбирается один раз за запрос; повторные запросы с тем же токеном берут утверждения из кэша
+                Claims claims = jwtUtil.extractClaims(token);
+                String username = claims.getSubject();
 
                 if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    logger.info("Authenticating user: {}", username);
+                    logger.debug("Authenticating user: {}", username);
                     UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                    if (jwtUtil.validateToken(token, userDetails.getUsername())) {
+                    if (jwtUtil.validateToken(claims, userDetails.getUsername())) {
                         var authentication = new UsernamePasswordAuthenticationToken(
                                 userDetails, null, userDetails.getAuthorities());
                         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                         SecurityContextHolder.getContext().setAuthentication(authentication);
                         logger.debug("Authentication successful for user: {}", username);
-                        logger.info("Token successfully verified by backend");
+                        outcome = "success";
+                    } else {
+                        outcome = "rejected";
                     }
                 } else if (username == null) {
                     logger.warn("Username extracted from token is null.");
+                    outcome = "rejected";
+                } else {
+                    outcome = "success"; // Запрос уже аутентифицирован
                 }
             } catch (JwtException | IllegalArgumentException e) {
-                logger.error("Token validation failed: {}", e.getMessage());
+                logger.warn("Token validation failed: {}", e.getMessage());
+                outcome = "rejected";
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 return;
+            } finally {
+                timerFor(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (event.shouldCommit()) {
+                    event.uri = path;
+                    event.outcome = outcome;
+                    event.commit();
+                }
             }
         } else {
             logger.debug("Authorization header is missing or does not start with Bearer");
@@ -94,6 +137,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         // Продолжаем цепочку фильтров
         filterChain.doFilter(request, response);
-        logger.info("Exiting doFilter for request: {}", request.getRequestURI());
+        logger.debug("Exiting doFilter for request: {}", path);
     }
 }
@@ -1,9 +1,12 @@
 package ru.tz1.taskTracker.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
@@ -43,6 +46,13 @@ public class SecurityConfig {
     @Value("${jwt.secret}")
     private String secretKey;
 
+    /**
+     * <h3>Стоимость BCrypt</h3>
+     * <p>Логарифм числа раундов BCrypt (каждая единица удваивает время хеширования).</p>
+     */
+    @Value("${security.bcrypt.strength:10}")
+    private int bcryptStrength;
+
     /**
      * <h3>JWT фильтр аутентификации</h3>
      * <p>Создает и настраивает фильтр JWT аутентификации.</p>
@@ -52,9 +62,16 @@ public class SecurityConfig {
     @Autowired
     private JwtUtil jwtUtil;
 
+    /**
+     * <h3>Реестр метрик</h3>
+     * <p>Реестр Micrometer для таймера проверки JWT.</p>
+     */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(secretKey, userDetailsService, jwtUtil);
+        return new JwtAuthenticationFilter(secretKey, userDetailsService, jwtUtil, meterRegistry);
     }
 
     /**
@@ -74,6 +91,10 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 // Настраиваем авторизацию запросов
                 .authorizeHttpRequests(authz -> authz
+                        // Асинхронное завершение уже проверенного запроса (поток GET /tasks/stream)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // Эндпоинты actuator (health, prometheus) доступны только на локальном порту управления
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).permitAll()
                         .requestMatchers("/api/auth/**", "/favicon.ico", "/error",
                                 "/mainPage", "/new", "/image.png").permitAll()
                         .anyRequest().authenticated()
@@ -88,13 +109,13 @@ public class SecurityConfig {
 
     /**
      * <h3>Кодировщик паролей</h3>
-     * <p>Определяет менеджер паролей, использующий BCrypt для хеширования паролей.</p>
+     * <p>Определяет менеджер паролей, использующий BCrypt с настраиваемой стоимостью для хеширования паролей.</p>
      *
      * @return Объект PasswordEncoder.
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     /**
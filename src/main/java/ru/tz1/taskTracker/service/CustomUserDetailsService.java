@@ -1,37 +1,62 @@
 package ru.tz1.taskTracker.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.tz1.taskTracker.entity.User;
+import ru.tz1.taskTracker.jfr.UserLookupEvent;
 import ru.tz1.taskTracker.repository.UserRepository;
+import ru.tz1.taskTracker.security.AuthenticatedUser;
+
+import java.time.Duration;
 
 /**
  * Класс, реализующий интерфейс UserDetailsService для загрузки информации о пользователе.
  * Используется в процессе аутентификации для получения данных о пользователе по его электронной почте.
+ * Загруженные данные хранятся в ограниченном кэше с временем жизни, поэтому аутентификация
+ * запроса обычно не обращается к таблице users. Кэш сбрасывается при удалении и регистрации пользователей.
  */
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository; // Репозиторий для работы с пользователями
+    private final Cache<String, AuthenticatedUser> userDetailsCache; // Кэш данных пользователей по email
     private static final Logger logger = LoggerFactory.getLogger(CustomUserDetailsService.class); // Инициализируем логгер
 
     /**
      * Конструктор класса CustomUserDetailsService.
      *
-     * @param userRepository Репозиторий для работы с пользователями.
+     * @param userRepository  Репозиторий для работы с пользователями.
+     * @param cacheTtlSeconds Время жизни записи кэша в секундах.
+     * @param cacheMaxSize    Максимальное количество пользователей в кэше.
      */
     @Autowired
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    @Value("${security.user-details-cache.ttl-seconds:300}") long cacheTtlSeconds,
+                                    @Value("${security.user-details-cache.max-size:10000}") long cacheMaxSize) {
         this.userRepository = userRepository;
+        this.userDetailsCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .maximumSize(cacheMaxSize)
+                .recordStats()
+                .build();
     }
 
     /**
      * Загружает информацию о пользователе по его электронной почте.
+     * Сначала ищет пользователя в кэше, при промахе загружает его из базы данных.
+     * Длительность записывается в событие JFR {@link UserLookupEvent}.
      *
      * @param email Электронная почта пользователя, чьи данные необходимо загрузить.
      * @return Объект UserDetails, содержащий информацию о пользователе.
@@ -39,16 +64,88 @@ public class CustomUserDetailsService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        UserLookupEvent event = new UserLookupEvent();
+        event.begin();
+        AuthenticatedUser cached = userDetailsCache.getIfPresent(email);
+        event.cacheHit = cached != null;
+        try {
+            if (cached == null) {
+                cached = loadFromDatabase(email);
+                userDetailsCache.put(email, cached);
+            }
+            event.userId = cached.getUserId();
+            // Возвращаем копию, чтобы стирание пароля в объекте аутентификации не испортило запись кэша
+            return new AuthenticatedUser(cached);
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Удаляет пользователя из кэша сейчас и, внутри транзакции, повторно после её завершения:
+     * параллельная аутентификация до фиксации еще видит прежнюю запись пользователя
+     * и вернула бы её в кэш на всё время жизни записи.
+     *
+     * @param email Электронная почта пользователя.
+     */
+    public void evict(String email) {
+        if (email != null) {
+            invalidateNowAndAfterCompletion(() -> userDetailsCache.invalidate(email));
+        }
+    }
+
+    /**
+     * Полностью очищает кэш пользователей сейчас и, внутри транзакции, повторно после её завершения.
+     */
+    public void evictAll() {
+        invalidateNowAndAfterCompletion(userDetailsCache::invalidateAll);
+    }
+
+    private static void invalidateNowAndAfterCompletion(Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * Возвращает статистику кэша пользователей.
+     *
+     * @return Количество попаданий, промахов и вытеснений.
+     */
+    public CacheStats getCacheStats() {
+        return userDetailsCache.stats();
+    }
+
+    /**
+     * Возвращает текущее количество пользователей в кэше.
+     *
+     * @return Приблизительный размер кэша.
+     */
+    public long getCacheSize() {
+        return userDetailsCache.estimatedSize();
+    }
+
+    /**
+     * Загружает пользователя из базы данных.
+     *
+     * @param email Электронная почта пользователя.
+     * @return Данные пользователя вместе с его идентификатором.
+     * @throws UsernameNotFoundException если пользователь не найден.
+     */
+    private AuthenticatedUser loadFromDatabase(String email) {
         User user = userRepository.findByEmail(email); // Ищем пользователя по электронной почте
         if (user == null) {
             logger.error("User not found for email: {}", email); // Логируем ошибку, если пользователь не найден
             throw new UsernameNotFoundException("User not found"); // Выбрасываем исключение
         }
         // Возвращаем объект UserDetails, созданный на основе найденного пользователя
-        return org.springframework.security.core.userdetails.User
-                .withUsername(user.getEmail())
-                .password(user.getPassword())
-                .roles(user.getRole())
-                .build();
+        return new AuthenticatedUser(user.getUserId(), user.getEmail(), user.getPassword(),
+                AuthorityUtils.createAuthorityList("ROLE_" + user.getRole()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,131 @@
+package ru.tz1.taskTracker.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Сервис для хеширования и проверки паролей на отдельном ограниченном пуле потоков.
+ * BCrypt намеренно медленный, поэтому выполнение его в потоках Tomcat при всплеске входов
+ * занимает все рабочие потоки сервера и останавливает обычные запросы к задачам.
+ * Пул имеет фиксированный размер и ограниченную очередь: если очередь заполнена,
+ * операция сразу завершается {@link RejectedExecutionException}, и клиент получает 503.
+ * Метрики: auth.bcrypt (время самого хеширования, без ожидания в очереди), auth.bcrypt.rejected
+ * (отклоненные операции) и executor.* с тегом name=bcrypt (размер очереди, занятые потоки).
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private final PasswordEncoder passwordEncoder; // Кодировщик паролей (BCrypt)
+    private final ThreadPoolExecutor executor; // Пул потоков для BCrypt
+    private final Timer encodeTimer; // Время хеширования пароля
+    private final Timer matchesTimer; // Время проверки пароля
+    private final Counter rejectedCounter; // Операции, отклоненные из-за заполненной очереди
+
+    /**
+     * Конструктор сервиса.
+     *
+     * @param passwordEncoder Кодировщик паролей.
+     * @param poolSize        Количество потоков для BCrypt (0 — по числу процессоров).
+     * @param queueCapacity   Максимальное количество операций, ожидающих свободный поток.
+     * @param meterRegistry   Реестр метрик.
+     */
+    @Autowired
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Value("${security.bcrypt.pool-size:0}") int poolSize,
+                                  @Value("${security.bcrypt.queue-capacity:64}") int queueCapacity,
+                                  MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new BcryptThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        this.encodeTimer = bcryptTimer(meterRegistry, "encode");
+        this.matchesTimer = bcryptTimer(meterRegistry, "matches");
+        this.rejectedCounter = Counter.builder("auth.bcrypt.rejected")
+                .description("BCrypt operations rejected because the executor queue is full")
+                .register(meterRegistry);
+        new ExecutorServiceMetrics(executor, "bcrypt", Tags.empty()).bindTo(meterRegistry);
+        logger.info("BCrypt executor started: {} threads, queue capacity {}", threads, queueCapacity);
+    }
+
+    /**
+     * Хеширует пароль на пуле BCrypt.
+     *
+     * @param rawPassword сырой (нехэшированный) пароль
+     * @return future с хэшем пароля; завершается RejectedExecutionException, если пул перегружен
+     */
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Проверяет пароль на пуле BCrypt.
+     *
+     * @param rawPassword     сырой (нехэшированный) пароль
+     * @param encodedPassword хэшированный пароль
+     * @return future с результатом проверки; завершается RejectedExecutionException, если пул перегружен
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Останавливает пул потоков при завершении приложения.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> operation) {
+        try {
+            return CompletableFuture.supplyAsync(() -> timer.record(operation), executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            logger.warn("BCrypt executor is saturated ({} queued), rejecting operation", executor.getQueue().size());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static Timer bcryptTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.bcrypt")
+                .description("BCrypt hashing time on the password hashing executor")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Фабрика потоков с понятными именами для диагностики.
+     */
+    private static class BcryptThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "bcrypt-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ru.tz1.taskTracker.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Счетчик изменений таблицы задач, из которого строится ETag списков задач.
+ * Любое изменение задач увеличивает счетчик, поэтому совпадение ETag означает, что список не изменился,
+ * и запрос можно обслужить ответом 304 без обращения к базе данных.
+ * Счетчик хранится в памяти и начинается с метки времени запуска, чтобы ETag не повторялись после перезапуска.
+ * Учитываются только изменения, сделанные этим экземпляром приложения.
+ */
+@Component
+public class TaskChangeCounter {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36); // Метка запуска приложения
+    private final AtomicLong counter = new AtomicLong(); // Количество изменений с момента запуска
+
+    /**
+     * Отмечает изменение задач. Внутри транзакции счетчик увеличивается после её завершения
+     * (один раз на транзакцию): иначе запрос, прочитавший новое значение до фиксации,
+     * закэшировал бы под новым ETag старые данные.
+     */
+    public void recordChange() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter.incrementAndGet();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return; // Увеличение уже запланировано для текущей транзакции
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TaskChangeCounter.this);
+                counter.incrementAndGet(); // После отката лишнее увеличение только сбрасывает кэш клиентов
+            }
+        });
+    }
+
+    /**
+     * Возвращает текущее значение счетчика.
+     *
+     * @return количество изменений с момента запуска
+     */
+    public long current() {
+        return counter.get();
+    }
+
+    /**
+     * Строит сильный ETag списка задач для текущего значения счетчика.
+     * ETag нужно получать до чтения задач: тогда изменение, сделанное во время чтения, сменит ETag
+     * при следующем запросе и не оставит клиенту устаревший список.
+     *
+     * @param variant Уточнение для ответов, зависящих не только от URL (например, идентификатор
+     *                пользователя для выборки его задач), или null.
+     * @return ETag в кавычках
+     */
+    public String etag(Object variant) {
+        String value = "tasks-" + epoch + "-" + counter.get();
+        return "\"" + (variant == null ? value : value + "-" + variant) + "\"";
+    }
+}
@@ -0,0 +1,123 @@
+package ru.tz1.taskTracker.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.tz1.taskTracker.repository.TaskRepository;
+import ru.tz1.taskTracker.repository.TaskTombstoneRepository;
+
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Выдает монотонно растущие номера изменений задач для синхронизации (GET /tasks/changes).
+ * Все строки, измененные одной транзакцией, получают один номер. Номер выдается до фиксации транзакции,
+ * поэтому транзакции могут фиксироваться не в порядке номеров; чтобы клиент не пропустил
+ * изменение, выдача ограничивается {@link #stableWatermark()} - номером, ниже которого
+ * незавершенных транзакций уже нет.
+ * Номера и незавершенные транзакции учитываются в памяти, поэтому изменять задачи должен один экземпляр приложения.
+ * Вместо synchronized используется ReentrantLock: первое обращение читает базу данных под блокировкой,
+ * а synchronized на Java 23 закрепил бы виртуальный поток за потоком-носителем на время запроса.
+ */
+@Component
+public class TaskChangeSequence {
+
+    private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository taskTombstoneRepository;
+
+    private final AtomicLong counter = new AtomicLong(); // Последний выданный номер
+    private final NavigableSet<Long> inFlight = new ConcurrentSkipListSet<>(); // Номера незавершенных транзакций
+    private final ReentrantLock lock = new ReentrantLock(); // Согласует выдачу номеров и stableWatermark
+    private volatile boolean initialized;
+
+    /**
+     * Конструктор.
+     *
+     * @param taskRepository          Репозиторий задач (для наибольшего сохраненного номера).
+     * @param taskTombstoneRepository Репозиторий удалений (для наибольшего сохраненного номера).
+     */
+    @Autowired
+    public TaskChangeSequence(TaskRepository taskRepository, TaskTombstoneRepository taskTombstoneRepository) {
+        this.taskRepository = taskRepository;
+        this.taskTombstoneRepository = taskTombstoneRepository;
+    }
+
+    /**
+     * Возвращает номер изменения текущей транзакции, выдавая новый при первом обращении в ней.
+     * Вне транзакции каждый вызов выдает новый номер.
+     *
+     * @return номер изменения
+     */
+    public long current() {
+        ensureInitialized();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return counter.incrementAndGet();
+        }
+        Long bound = (Long) TransactionSynchronizationManager.getResource(this);
+        if (bound != null) {
+            return bound;
+        }
+        long changeSeq;
+        lock.lock();
+        try {
+            // Номер выдается и регистрируется атомарно, иначе stableWatermark мог бы его пропустить
+            changeSeq = counter.incrementAndGet();
+            inFlight.add(changeSeq);
+        } finally {
+            lock.unlock();
+        }
+        TransactionSynchronizationManager.bindResource(this, changeSeq);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TaskChangeSequence.this);
+                inFlight.remove(changeSeq);
+            }
+        });
+        return changeSeq;
+    }
+
+    /**
+     * Возвращает наибольший номер, до которого (включительно) все изменения зафиксированы или отменены.
+     * Изменения с большими номерами еще могут появиться, поэтому клиенту их не отдают.
+     *
+     * @return стабильный номер изменения
+     */
+    public long stableWatermark() {
+        ensureInitialized();
+        lock.lock();
+        try {
+            return inFlight.isEmpty() ? counter.get() : inFlight.first() - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Продолжает нумерацию после наибольшего сохраненного номера. Выполняется при первом обращении,
+     * когда TaskSchemaMigration уже заполнила номера у старых задач.
+     */
+    private void ensureInitialized() {
+        if (initialized) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (!initialized) {
+                long maxTask = valueOrZero(taskRepository.findMaxChangeSeq());
+                long maxTombstone = valueOrZero(taskTombstoneRepository.findMaxChangeSeq());
+                counter.accumulateAndGet(Math.max(maxTask, maxTombstone), Math::max);
+                initialized = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long valueOrZero(Long value) {
+        return value == null ? 0 : value;
+    }
+}
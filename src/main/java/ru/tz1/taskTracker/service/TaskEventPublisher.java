@@ -0,0 +1,285 @@
+package ru.tz1.taskTracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.tz1.taskTracker.entity.TaskEventDto;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Сервис рассылки событий изменения задач подписчикам GET /tasks/stream (Server-Sent Events).
+ * Событие сериализуется в JSON один раз и ставится в ограниченную очередь каждого подписчика;
+ * отправку выполняет небольшой отдельный пул потоков, поэтому медленный клиент не задерживает
+ * изменяющий запрос. Подписчик, очередь которого переполнена, отключается: после переподключения
+ * клиент загружает список задач заново. Подключение завершается потоком отправки, а не публикующим потоком:
+ * завершение ждет отправку, которая может зависнуть на медленном клиенте.
+ * События отправляются только после фиксации транзакции.
+ */
+@Service
+public class TaskEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskEventPublisher.class);
+
+    private final ObjectMapper objectMapper; // Сериализация событий
+    private final int bufferSize; // Размер очереди событий одного подписчика
+    private final long timeoutMillis; // Время жизни подключения
+    private final int maxSubscribers; // Максимальное количество подписчиков
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet(); // Текущие подписчики
+    private final AtomicInteger reservedSlots = new AtomicInteger(); // Места подписчиков, занятые или занимаемые сейчас
+    private final ExecutorService dispatcher; // Потоки, отправляющие события подписчикам
+    private final ScheduledExecutorService heartbeat; // Периодическая проверка подключений
+
+    /**
+     * Конструктор сервиса.
+     *
+     * @param objectMapper     Сериализатор JSON.
+     * @param bufferSize       Размер очереди событий одного подписчика.
+     * @param timeoutMillis    Время жизни подключения в миллисекундах (клиент переподключается сам).
+     * @param maxSubscribers   Максимальное количество одновременных подписчиков.
+     * @param dispatchThreads  Количество потоков отправки.
+     * @param heartbeatSeconds Период отправки пустых комментариев, по которым обнаруживаются разорванные подключения.
+     */
+    @Autowired
+    public TaskEventPublisher(ObjectMapper objectMapper,
+                              @Value("${tasks.stream.buffer-size:256}") int bufferSize,
+                              @Value("${tasks.stream.timeout-ms:1800000}") long timeoutMillis,
+                              @Value("${tasks.stream.max-subscribers:1000}") int maxSubscribers,
+                              @Value("${tasks.stream.dispatch-threads:2}") int dispatchThreads,
+                              @Value("${tasks.stream.heartbeat-seconds:25}") long heartbeatSeconds) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.maxSubscribers = maxSubscribers;
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, new StreamThreadFactory("task-stream-"));
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(new StreamThreadFactory("task-stream-heartbeat-"));
+        this.heartbeat.scheduleAtFixedRate(this::sendHeartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Регистрирует нового подписчика.
+     *
+     * @return SseEmitter, который нужно вернуть из контроллера
+     * @throws IllegalStateException если достигнуто максимальное количество подписчиков
+     */
+    public SseEmitter subscribe() {
+        // Место занимается атомарно до проверки: иначе одновременные подписки превысили бы ограничение
+        if (reservedSlots.incrementAndGet() > maxSubscribers) {
+            reservedSlots.decrementAndGet();
+            throw new IllegalStateException("Too many task stream subscribers");
+        }
+        SseEmitter emitter = createEmitter();
+        Subscriber subscriber = new Subscriber(emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscriber.offer(Event.COMMENT); // Первые байты сразу отправляют клиенту заголовки ответа
+        return emitter;
+    }
+
+    /**
+     * Создает SseEmitter нового подписчика.
+     *
+     * @return SseEmitter с настроенным временем жизни подключения
+     */
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    /**
+     * Проверяет, есть ли подписчики. Позволяет не готовить данные события, если их некому отправить.
+     *
+     * @return true, если есть хотя бы один подписчик
+     */
+    public boolean hasSubscribers() {
+        return !subscribers.isEmpty();
+    }
+
+    /**
+     * Возвращает количество подписчиков.
+     *
+     * @return количество подписчиков
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Публикует событие. Событие сериализуется сразу (в том числе подгружаются ленивые данные задачи),
+     * а рассылается после фиксации текущей транзакции; вне транзакции - немедленно.
+     *
+     * @param event событие изменения задач
+     */
+    public void publish(TaskEventDto event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Event serialized;
+        try {
+            serialized = new Event(event.getType().getEventName(), objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to serialize task event {} for task {}", event.getType(), event.getTaskId(), e);
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcast(serialized);
+                }
+            });
+        } else {
+            broadcast(serialized);
+        }
+    }
+
+    /**
+     * Закрывает все подключения и останавливает потоки при завершении приложения.
+     */
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        subscribers.forEach(Subscriber::disconnect);
+        dispatcher.shutdown();
+    }
+
+    private void broadcast(Event event) {
+        subscribers.forEach(subscriber -> subscriber.offer(event));
+    }
+
+    private void sendHeartbeat() {
+        broadcast(Event.COMMENT);
+    }
+
+    /**
+     * Событие, готовое к отправке: имя события SSE и JSON (для комментария оба поля равны null).
+     */
+    private record Event(String name, String data) {
+        static final Event COMMENT = new Event(null, null);
+    }
+
+    /**
+     * Подписчик с собственной ограниченной очередью событий.
+     * Очередь разбирается не более чем одним потоком отправки одновременно, что сохраняет порядок событий.
+     */
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean(); // Очередь уже передана потоку отправки
+        private final AtomicBoolean completePending = new AtomicBoolean(); // Подключение нужно завершить в потоке отправки
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Event event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                logger.warn("Task stream subscriber is too slow ({} events queued), disconnecting", bufferSize);
+                disconnect();
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    dispatcher.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false); // Приложение останавливается
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Event event;
+                while (!closed && (event = queue.poll()) != null) {
+                    if (event.name() == null) {
+                        emitter.send(SseEmitter.event().comment(""));
+                    } else {
+                        emitter.send(SseEmitter.event().name(event.name()).data(event.data()));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Task stream subscriber disconnected: {}", e.getMessage());
+                close();
+            } finally {
+                if (closed && completePending.compareAndSet(true, false)) {
+                    emitter.complete();
+                }
+                scheduled.set(false);
+                // Событие или отключение могли прийти после того, как очередь оказалась пустой
+                if (closed ? completePending.get() : !queue.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+
+        void close() {
+            closed = true;
+            if (subscribers.remove(this)) {
+                reservedSlots.decrementAndGet(); // close вызывается несколько раз, место освобождается однажды
+            }
+            queue.clear();
+        }
+
+        /**
+         * Отключает подписчика. Место освобождается сразу, а подключение завершает поток отправки,
+         * когда закончится текущая отправка: вызвавший поток (запрос после фиксации транзакции или
+         * проверка подключений) не ждет медленного клиента.
+         */
+        void disconnect() {
+            close();
+            completePending.set(true);
+            schedule();
+        }
+    }
+
+    /**
+     * Фабрика потоков с понятными именами для диагностики.
+     */
+    private static class StreamThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        StreamThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package ru.tz1.taskTracker.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.tz1.taskTracker.repository.TaskExportRow;
+import ru.tz1.taskTracker.repository.TaskRepository;
+import ru.tz1.taskTracker.util.CsvWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Сервис выгрузки всех задач в NDJSON или CSV.
+ * Задачи читаются однонаправленным курсором базы данных с фиксированным размером выборки и сразу
+ * записываются в выходной поток, поэтому память не зависит от количества задач: в ней находится
+ * только текущая задача и буфер драйвера.
+ */
+@Service
+public class TaskExportService {
+
+    /**
+     * Заголовок CSV. Комментарии задачи записываются в одно поле JSON-массивом строк:
+     * в отличие от разделителя, он однозначно передает комментарии, содержащие переводы строк.
+     */
+    static final String[] CSV_HEADER =
+            {"taskId", "title", "description", "status", "priority", "createdDate", "deadline", "comments"};
+
+    private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    /**
+     * Конструктор сервиса выгрузки.
+     *
+     * @param taskRepository Репозиторий задач.
+     * @param objectMapper   Настроенный в приложении ObjectMapper для записи JSON.
+     * @param fetchSize      Количество строк, получаемых из базы за одно обращение.
+     */
+    @Autowired
+    public TaskExportService(TaskRepository taskRepository, ObjectMapper objectMapper,
+                             @Value("${tasks.export.fetch-size:500}") int fetchSize) {
+        this.taskRepository = taskRepository;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Выгружает все задачи в формате NDJSON: один JSON-объект задачи на строку.
+     *
+     * @param out выходной поток (не закрывается)
+     * @return количество выгруженных задач
+     * @throws IOException при ошибке записи
+     */
+    @Transactional
+    public long exportNdjson(OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            return export(task -> {
+                generator.writeStartObject();
+                generator.writeNumberField("taskId", task.first.getTaskId());
+                generator.writeStringField("title", task.first.getTitle());
+                generator.writeStringField("description", task.first.getDescription());
+                generator.writeStringField("status", task.first.getStatus().getLabel());
+                generator.writeStringField("priority", task.first.getPriority().getLabel());
+                generator.writeStringField("createdDate", format(task.first.getCreatedDate()));
+                generator.writeStringField("deadline", format(task.first.getDeadline()));
+                generator.writeArrayFieldStart("comments");
+                for (String comment : task.comments) {
+                    generator.writeString(comment);
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            });
+        }
+    }
+
+    /**
+     * Выгружает все задачи в формате CSV с заголовком.
+     *
+     * @param out выходной поток (не закрывается)
+     * @return количество выгруженных задач
+     * @throws IOException при ошибке записи
+     */
+    @Transactional
+    public long exportCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        CsvWriter csv = new CsvWriter(writer);
+        csv.writeRow(CSV_HEADER);
+        long count = export(task -> csv.writeRow(
+                String.valueOf(task.first.getTaskId()),
+                task.first.getTitle(),
+                task.first.getDescription(),
+                task.first.getStatus().getLabel(),
+                task.first.getPriority().getLabel(),
+                format(task.first.getCreatedDate()),
+                format(task.first.getDeadline()),
+                objectMapper.writeValueAsString(task.comments)));
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Читает строки выгрузки, собирает строки одной задачи вместе и передает каждую задачу обработчику.
+     * Строки упорядочены по идентификатору задачи, поэтому в памяти находится только одна задача.
+     */
+    private long export(TaskWriter taskWriter) throws IOException {
+        long count = 0;
+        try (Stream<TaskExportRow> rows = taskRepository.streamExportRows(fetchSize)) {
+            Iterator<TaskExportRow> iterator = rows.iterator();
+            ExportedTask current = null;
+            while (iterator.hasNext()) {
+                TaskExportRow row = iterator.next();
+                if (current == null || !current.first.getTaskId().equals(row.getTaskId())) {
+                    if (current != null) {
+                        taskWriter.write(current);
+                        count++;
+                    }
+                    current = new ExportedTask(row);
+                }
+                if (row.getComment() != null) {
+                    current.comments.add(row.getComment());
+                }
+            }
+            if (current != null) {
+                taskWriter.write(current);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String format(LocalDate date) {
+        return date == null ? null : date.toString();
+    }
+
+    /**
+     * Задача, собранная из строк выгрузки: поля из первой строки и все комментарии.
+     */
+    private static final class ExportedTask {
+        private final TaskExportRow first;
+        private final List<String> comments = new ArrayList<>();
+
+        private ExportedTask(TaskExportRow first) {
+            this.first = first;
+        }
+    }
+
+    @FunctionalInterface
+    private interface TaskWriter {
+        void write(ExportedTask task) throws IOException;
+    }
+}
@@ -0,0 +1,278 @@
+package ru.tz1.taskTracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.tz1.taskTracker.entity.Task;
+import ru.tz1.taskTracker.entity.TaskImportJob;
+import ru.tz1.taskTracker.entity.TaskPriority;
+import ru.tz1.taskTracker.entity.TaskStatus;
+import ru.tz1.taskTracker.util.CsvReader;
+import ru.tz1.taskTracker.util.TaskValidator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Сервис импорта задач из NDJSON или CSV.
+ * Входные данные читаются из потока по одной строке, проверяются по тем же правилам, что и при создании
+ * задачи, и сохраняются транзакциями по tasks.import.chunk-size задач. Файл целиком в памяти не хранится:
+ * следующая порция читается только после сохранения предыдущей, поэтому скорость чтения запроса
+ * ограничена скоростью записи в базу данных.
+ * Формат CSV совпадает с выгрузкой GET /tasks/export (см. {@link TaskExportService}): комментарии записаны
+ * в одном поле JSON-массивом. Поле, не являющееся JSON-массивом (например, в файле, подготовленном вручную),
+ * читается как комментарии по одному на строку.
+ */
+@Service
+public class TaskImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskImportService.class);
+
+    private final TaskService taskService;
+    private final ObjectReader taskReader;
+    private final ObjectReader commentsReader;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final Cache<String, TaskImportJob> jobs; // Недавние импорты для запросов прогресса
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Конструктор сервиса импорта.
+     *
+     * @param taskService  Сервис задач, сохраняющий порции задач.
+     * @param objectMapper Настроенный в приложении ObjectMapper для чтения JSON.
+     * @param chunkSize    Количество задач, сохраняемых в одной транзакции.
+     * @param maxErrors    Максимальное количество ошибок по строкам, сохраняемых в отчете импорта.
+     * @param maxJobs      Количество последних импортов, состояние которых доступно по идентификатору.
+     */
+    @Autowired
+    public TaskImportService(TaskService taskService, ObjectMapper objectMapper,
+                             @Value("${tasks.import.chunk-size:1000}") int chunkSize,
+                             @Value("${tasks.import.max-errors:1000}") int maxErrors,
+                             @Value("${tasks.import.max-jobs:100}") int maxJobs) {
+        this.taskService = taskService;
+        this.taskReader = objectMapper.readerFor(Task.class);
+        this.commentsReader = objectMapper.readerForListOf(String.class);
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        this.jobs = Caffeine.newBuilder()
+                .maximumSize(maxJobs)
+                .expireAfterWrite(Duration.ofDays(1))
+                .build();
+    }
+
+    /**
+     * Проверяет, поддерживается ли формат импорта.
+     *
+     * @param format формат входных данных
+     * @return true для ndjson и csv
+     */
+    public boolean isSupportedFormat(String format) {
+        return "ndjson".equalsIgnoreCase(format) || "csv".equalsIgnoreCase(format);
+    }
+
+    /**
+     * Регистрирует новый импорт. Его состояние доступно через {@link #getJob(String)} во время выполнения.
+     *
+     * @param format  формат входных данных (ndjson или csv)
+     * @param ownerId идентификатор владельца импортируемых задач (null, если владелец не задан)
+     * @return новый импорт в состоянии RUNNING
+     */
+    public TaskImportJob createJob(String format, Long ownerId) {
+        TaskImportJob job = new TaskImportJob(UUID.randomUUID().toString(), format.toLowerCase(Locale.ROOT),
+                ownerId, maxErrors);
+        jobs.put(job.getJobId(), job);
+        return job;
+    }
+
+    /**
+     * Выполняет импорт: читает поток до конца и сохраняет корректные задачи порциями.
+     * Сбой чтения или сохранения завершает импорт в состоянии FAILED; порции, сохраненные до сбоя, остаются.
+     *
+     * @param job  импорт, созданный {@link #createJob(String, Long)}
+     * @param body входные данные в кодировке UTF-8 (не закрывается)
+     */
+    public void runImport(TaskImportJob job, InputStream body) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<Task> chunk = new ArrayList<>(chunkSize);
+        try {
+            if ("csv".equals(job.getFormat())) {
+                readCsv(job, reader, chunk);
+            } else {
+                readNdjson(job, reader, chunk);
+            }
+            saveChunk(job, chunk);
+            job.finish(TaskImportJob.Status.COMPLETED, null);
+        } catch (Exception e) {
+            logger.error("Import {} failed after {} rows", job.getJobId(), job.getProcessedRows(), e);
+            job.finish(TaskImportJob.Status.FAILED, e.getMessage());
+        }
+        logger.info("Import {} finished: {}, {} imported, {} rejected", job.getJobId(), job.getStatus(),
+                job.getImportedRows(), job.getRejectedRows());
+    }
+
+    /**
+     * Получает состояние импорта.
+     *
+     * @param jobId идентификатор импорта
+     * @return импорт или null, если он не найден или устарел
+     */
+    public TaskImportJob getJob(String jobId) {
+        return jobs.getIfPresent(jobId);
+    }
+
+    /**
+     * Получает состояние последних импортов.
+     *
+     * @return импорты, начиная с самых новых
+     */
+    public List<TaskImportJob> getJobs() {
+        List<TaskImportJob> result = new ArrayList<>(jobs.asMap().values());
+        result.sort(Comparator.comparing(TaskImportJob::getStartedAt).reversed());
+        return result;
+    }
+
+    private void readNdjson(TaskImportJob job, BufferedReader reader, List<Task> chunk) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            job.rowProcessed();
+            Task task;
+            try {
+                task = taskReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                job.rejected(job.getProcessedRows(), "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            accept(job, task, chunk);
+        }
+    }
+
+    private void readCsv(TaskImportJob job, BufferedReader reader, List<Task> chunk) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRow();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        List<String> row;
+        while ((row = csv.readRow()) != null) {
+            if (row.size() == 1 && row.get(0).isBlank()) {
+                continue; // Пустая строка
+            }
+            job.rowProcessed();
+            Task task;
+            try {
+                task = toTask(row, columns);
+            } catch (DateTimeParseException e) {
+                job.rejected(job.getProcessedRows(), "Invalid date: " + e.getParsedString());
+                continue;
+            } catch (IllegalArgumentException e) {
+                job.rejected(job.getProcessedRows(), e.getMessage());
+                continue;
+            }
+            accept(job, task, chunk);
+        }
+    }
+
+    /**
+     * Проверяет задачу и добавляет её в текущую порцию; заполненная порция сохраняется.
+     */
+    private void accept(TaskImportJob job, Task task, List<Task> chunk) {
+        String error = TaskValidator.validate(task);
+        if (error != null) {
+            job.rejected(job.getProcessedRows(), error);
+            return;
+        }
+        chunk.add(task);
+        if (chunk.size() >= chunkSize) {
+            saveChunk(job, chunk);
+        }
+    }
+
+    /**
+     * Сохраняет порцию задач в отдельной транзакции и отсоединяет сохраненные задачи от контекста
+     * персистентности, чтобы он не рос вместе с количеством импортированных задач.
+     */
+    private void saveChunk(TaskImportJob job, List<Task> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        taskService.createTasks(chunk, job.getOwnerId());
+        entityManager.clear();
+        job.imported(chunk.size());
+        chunk.clear();
+    }
+
+    private Task toTask(List<String> row, Map<String, Integer> columns) {
+        Task task = new Task();
+        task.setTitle(column(row, columns, "title"));
+        task.setDescription(column(row, columns, "description"));
+        task.setStatus(TaskStatus.fromValue(column(row, columns, "status")));
+        task.setPriority(TaskPriority.fromValue(column(row, columns, "priority")));
+        task.setCreatedDate(parseDate(column(row, columns, "createdDate")));
+        task.setDeadline(parseDate(column(row, columns, "deadline")));
+        task.setComments(parseComments(column(row, columns, "comments")));
+        return task;
+    }
+
+    /**
+     * Читает поле комментариев CSV: JSON-массив строк из выгрузки или комментарии по одному на строку.
+     */
+    private List<String> parseComments(String value) {
+        if (value == null) {
+            return new ArrayList<>();
+        }
+        if (value.startsWith("[")) {
+            try {
+                List<String> comments = commentsReader.readValue(value);
+                return new ArrayList<>(comments);
+            } catch (JsonProcessingException e) {
+                // Не JSON-массив, а комментарий, начинающийся с "["
+            }
+        }
+        return new ArrayList<>(Arrays.asList(value.split("\n")));
+    }
+
+    private static String column(List<String> row, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= row.size() || row.get(index).isEmpty()) {
+            return null;
+        }
+        return row.get(index);
+    }
+
+    private static LocalDate parseDate(String value) {
+        return value == null ? null : LocalDate.parse(value.trim());
+    }
+}
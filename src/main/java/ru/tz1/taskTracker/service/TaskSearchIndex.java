@@ -0,0 +1,327 @@
+package ru.tz1.taskTracker.service;
+
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.tz1.taskTracker.entity.Task;
+import ru.tz1.taskTracker.entity.TaskFilter;
+import ru.tz1.taskTracker.repository.TaskKeyset;
+import ru.tz1.taskTracker.repository.TaskRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Инвертированный индекс для полнотекстового поиска по задачам в памяти приложения.
+ * Индексирует заголовок, описание и комментарии задачи. Поддерживает русский и английский текст:
+ * слова приводятся к нижнему регистру, "ё" заменяется на "е", а слова запроса длиной от трех символов
+ * сопоставляются по префиксу, что покрывает большинство словоформ ("задач" находит "задача", "задачи").
+ * Индекс строится при старте приложения и обновляется инкрементально из {@link TaskService}.
+ * Внутри транзакции изменения индекса применяются после её фиксации, поэтому откаченные изменения
+ * задач не попадают в результаты поиска.
+ */
+@Component
+public class TaskSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskSearchIndex.class);
+
+    private static final int MIN_TOKEN_LENGTH = 2; // Более короткие слова не индексируются
+    private static final int MIN_PREFIX_LENGTH = 3; // Слова запроса такой длины и длиннее ищутся по префиксу
+    private static final int REBUILD_BATCH_SIZE = 500; // Размер пачки задач при построении индекса
+
+    private final NavigableMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>(); // Слово -> идентификаторы задач
+    private final Map<Long, Set<String>> documentTokens = new ConcurrentHashMap<>(); // Задача -> её слова
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Конструктор индекса.
+     *
+     * @param taskRepository     Репозиторий задач, используемый при построении индекса.
+     * @param transactionManager Менеджер транзакций для чтения задач вместе с комментариями.
+     */
+    @Autowired
+    public TaskSearchIndex(TaskRepository taskRepository, PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Строит индекс по всем задачам после запуска приложения.
+     * Задачи читаются пачками с keyset-пагинацией, поэтому вся таблица не загружается в память разом.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        TaskFilter filter = new TaskFilter();
+        TaskKeyset after = null;
+        int indexed = 0;
+        while (true) {
+            final TaskKeyset position = after;
+            List<Task> batch = transactionTemplate.execute(status -> {
+                // Пачки перестроения читаются один раз и в кэш запросов не попадают
+                List<Task> tasks = taskRepository.findPage(filter, position, REBUILD_BATCH_SIZE, false);
+                tasks.forEach(task -> Hibernate.initialize(task.getComments()));
+                return tasks;
+            });
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            batch.forEach(this::index);
+            indexed += batch.size();
+            Task last = batch.get(batch.size() - 1);
+            after = TaskKeyset.of(last.getTaskId(), last.getCreatedDate(), last.getDeadline(), filter.getSortField());
+        }
+        logger.info("Search index built: {} tasks, {} terms in {} ms",
+                indexed, postings.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Добавляет задачу в индекс или обновляет её слова, если задача уже проиндексирована.
+     * Слова берутся из задачи сразу (пока доступны её ленивые комментарии), а в индекс попадают
+     * после фиксации текущей транзакции; вне транзакции - немедленно.
+     *
+     * @param task задача для индексации
+     */
+    public void index(Task task) {
+        if (task == null || task.getTaskId() == null) {
+            return;
+        }
+        Long taskId = task.getTaskId();
+        Set<String> tokens = tokenize(task);
+        afterCommit(() -> replaceTokens(taskId, tokens));
+    }
+
+    private void replaceTokens(Long taskId, Set<String> tokens) {
+        documentTokens.compute(taskId, (id, previous) -> {
+            if (previous != null) {
+                for (String token : previous) {
+                    if (!tokens.contains(token)) {
+                        removePosting(token, id);
+                    }
+                }
+            }
+            for (String token : tokens) {
+                addPosting(token, id);
+            }
+            return tokens;
+        });
+    }
+
+    /**
+     * Добавляет в индекс слова нового текста задачи (например, добавленного комментария),
+     * не перечитывая задачу целиком. Ничего не делает, если задача еще не проиндексирована.
+     * Внутри транзакции слова добавляются после её фиксации.
+     *
+     * @param taskId идентификатор задачи
+     * @param text   добавленный текст
+     */
+    public void indexText(Long taskId, String text) {
+        if (taskId == null) {
+            return;
+        }
+        Set<String> added = tokenize(text);
+        afterCommit(() -> documentTokens.computeIfPresent(taskId, (id, previous) -> {
+            Set<String> tokens = new HashSet<>(previous);
+            for (String token : added) {
+                if (tokens.add(token)) {
+                    addPosting(token, id);
+                }
+            }
+            return tokens;
+        }));
+    }
+
+    /**
+     * Удаляет задачу из индекса. Внутри транзакции задача удаляется после её фиксации.
+     *
+     * @param taskId идентификатор удаленной задачи
+     */
+    public void remove(Long taskId) {
+        if (taskId == null) {
+            return;
+        }
+        afterCommit(() -> documentTokens.computeIfPresent(taskId, (id, previous) -> {
+            previous.forEach(token -> removePosting(token, id));
+            return null;
+        }));
+    }
+
+    /**
+     * Ищет задачи, содержащие все слова запроса.
+     *
+     * @param query строка запроса
+     * @param limit максимальное количество результатов
+     * @return идентификаторы найденных задач, начиная с самых новых
+     */
+    public List<Long> search(String query, int limit) {
+        Set<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        // Находим множество задач для каждого слова и пересекаем, начиная с самого маленького
+        List<Set<Long>> matches = new ArrayList<>(queryTokens.size());
+        for (String token : queryTokens) {
+            Set<Long> ids = match(token);
+            if (ids.isEmpty()) {
+                return Collections.emptyList();
+            }
+            matches.add(ids);
+        }
+        matches.sort(Comparator.comparingInt(Set::size));
+
+        List<Long> result = new ArrayList<>();
+        for (Long id : matches.get(0)) {
+            boolean inAll = true;
+            for (int i = 1; i < matches.size() && inAll; i++) {
+                inAll = matches.get(i).contains(id);
+            }
+            if (inAll) {
+                result.add(id);
+            }
+        }
+        result.sort(Comparator.reverseOrder());
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * Возвращает количество проиндексированных задач.
+     *
+     * @return количество задач в индексе
+     */
+    public int size() {
+        return documentTokens.size();
+    }
+
+    /**
+     * Находит задачи по одному слову запроса: точное совпадение для коротких слов
+     * и совпадение по префиксу для слов длиной от {@value #MIN_PREFIX_LENGTH} символов.
+     */
+    private Set<Long> match(String token) {
+        if (token.length() < MIN_PREFIX_LENGTH) {
+            Set<Long> ids = postings.get(token);
+            return ids == null ? Collections.emptySet() : ids;
+        }
+        Collection<Set<Long>> prefixed = postings.subMap(token, true, token + Character.MAX_VALUE, false).values();
+        if (prefixed.size() == 1) {
+            return prefixed.iterator().next();
+        }
+        Set<Long> ids = new HashSet<>();
+        prefixed.forEach(ids::addAll);
+        return ids;
+    }
+
+    /**
+     * Выполняет изменение индекса после фиксации текущей транзакции или сразу, если транзакции нет.
+     */
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * Добавляет задачу в список задач слова. ConcurrentSkipListMap не выполняет compute атомарно,
+     * поэтому списки изменяются под блокировкой самого списка: иначе {@link #removePosting} другой задачи
+     * мог бы убрать опустевший список из индекса одновременно с добавлением, и задача потерялась бы.
+     * Список, уже убранный из индекса, не дополняется, вместо него создается новый.
+     */
+    private void addPosting(String token, Long taskId) {
+        while (true) {
+            Set<Long> ids = postings.computeIfAbsent(token, key -> ConcurrentHashMap.newKeySet());
+            synchronized (ids) {
+                if (postings.get(token) == ids) {
+                    ids.add(taskId);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Убирает задачу из списка задач слова и удаляет опустевший список из индекса.
+     */
+    private void removePosting(String token, Long taskId) {
+        Set<Long> ids = postings.get(token);
+        if (ids == null) {
+            return;
+        }
+        synchronized (ids) {
+            if (ids.remove(taskId) && ids.isEmpty() && postings.get(token) == ids) {
+                postings.remove(token, ids);
+            }
+        }
+    }
+
+    private static Set<String> tokenize(Task task) {
+        Set<String> tokens = new HashSet<>();
+        collectTokens(task.getTitle(), tokens);
+        collectTokens(task.getDescription(), tokens);
+        if (task.getComments() != null) {
+            task.getComments().forEach(comment -> collectTokens(comment, tokens));
+        }
+        return tokens;
+    }
+
+    /**
+     * Разбивает текст на слова.
+     *
+     * @param text исходный текст
+     * @return множество нормализованных слов
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new HashSet<>();
+        collectTokens(text, tokens);
+        return tokens;
+    }
+
+    /**
+     * Разбивает текст на слова из букв и цифр (любого алфавита) и добавляет их в множество.
+     */
+    private static void collectTokens(String text, Set<String> tokens) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean letter = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                if (i - start >= MIN_TOKEN_LENGTH) {
+                    tokens.add(normalized.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+    }
+}
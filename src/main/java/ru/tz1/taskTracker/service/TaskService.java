@@ -1,21 +1,45 @@
 package ru.tz1.taskTracker.service;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import ru.tz1.taskTracker.entity.Task;
+import ru.tz1.taskTracker.entity.TaskChangesDto;
+import ru.tz1.taskTracker.entity.TaskEventDto;
+import ru.tz1.taskTracker.entity.TaskFilter;
+import ru.tz1.taskTracker.entity.TaskPageDto;
+import ru.tz1.taskTracker.entity.TaskPatchDto;
+import ru.tz1.taskTracker.entity.TaskSummaryDto;
+import ru.tz1.taskTracker.entity.TaskTombstone;
+import ru.tz1.taskTracker.jfr.TaskFlushEvent;
+import ru.tz1.taskTracker.repository.TaskCacheEvictor;
+import ru.tz1.taskTracker.repository.TaskKeyset;
 import ru.tz1.taskTracker.repository.TaskRepository;
+import ru.tz1.taskTracker.repository.TaskTombstoneRepository;
+import ru.tz1.taskTracker.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * Сервис для управления задачами.
  * Предоставляет методы для создания, получения, обновления и удаления задач.
+ * Время каждого публичного метода записывается в таймер tasks.service с тегами method и exception.
  */
 @Service
+@Timed(value = "tasks.service", description = "Task service operations")
 public class TaskService {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskService.class); // Инициализируем логгер
@@ -23,63 +47,222 @@ public class TaskService {
     @Autowired
     private TaskRepository taskRepository; // Репозиторий для работы с задачами
 
+    @Autowired
+    private TaskSearchIndex taskSearchIndex; // Полнотекстовый индекс задач
+
+    @Autowired
+    private UserRepository userRepository; // Репозиторий пользователей (владельцев задач)
+
+    @Autowired
+    private TaskChangeCounter taskChangeCounter; // Счетчик изменений для ETag списков задач
+
+    @Autowired
+    private TaskEventPublisher taskEventPublisher; // Поток событий изменения задач (GET /tasks/stream)
+
+    @Autowired
+    private TaskChangeSequence taskChangeSequence; // Номера изменений для синхронизации (GET /tasks/changes)
+
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository; // Записи об удаленных задачах
+
+    @Autowired
+    private TaskCacheEvictor taskCacheEvictor; // Удаление задач, измененных в обход Hibernate, из кэша второго уровня
+
+    @Value("${tasks.stream.max-batch-events:50}")
+    private int maxBatchEvents; // Больше задач за одну операцию - одно событие RESET вместо события на задачу
+
+    @Value("${tasks.page.default-size:50}")
+    private int defaultPageSize; // Размер страницы по умолчанию
+
+    @Value("${tasks.page.max-size:200}")
+    private int maxPageSize; // Максимально допустимый размер страницы
+
     /**
      * Создает новую задачу.
      *
-     * @param task задача, которую нужно создать
+     * @param task    задача, которую нужно создать
+     * @param ownerId идентификатор владельца задачи (null, если владелец не задан)
      * @return сохраненная задача
      */
-    public Task createTask(Task task) {
-        return taskRepository.save(task); // Сохраняем новую задачу и возвращаем ее
+    @Transactional
+    public Task createTask(Task task, Long ownerId) {
+        prepareNewTask(task, ownerId);
+        Task savedTask = taskRepository.save(task); // Сохраняем новую задачу
+        afterTaskSaved(savedTask, TaskEventDto.Type.CREATED);
+        return savedTask;
+    }
+
+    /**
+     * Создает несколько задач в одной транзакции.
+     * Идентификаторы выдаются последовательностью пачками, поэтому INSERT задач и их комментариев
+     * отправляются JDBC-пакетами (hibernate.jdbc.batch_size), а не отдельным запросом на каждую строку.
+     *
+     * @param tasks   задачи, которые нужно создать
+     * @param ownerId идентификатор владельца задач (null, если владелец не задан)
+     * @return сохраненные задачи в том же порядке
+     */
+    @Transactional
+    public List<Task> createTasks(List<Task> tasks, Long ownerId) {
+        tasks.forEach(task -> prepareNewTask(task, ownerId));
+        List<Task> savedTasks = taskRepository.saveAll(tasks);
+        flushTasks("createBatch", 0, savedTasks.size()); // Отправляем пакеты сразу, чтобы ошибки базы возникли здесь, а не при фиксации
+        if (savedTasks.size() > maxBatchEvents) {
+            // Сотни событий переполнили бы очереди подписчиков, дешевле попросить их перечитать список
+            savedTasks.forEach(taskSearchIndex::index);
+            taskChangeCounter.recordChange();
+            taskEventPublisher.publish(TaskEventDto.reset());
+        } else {
+            savedTasks.forEach(task -> afterTaskSaved(task, TaskEventDto.Type.CREATED));
+        }
+        return savedTasks;
+    }
+
+    /**
+     * Получает версию задачи для ETag, не загружая задачу и её комментарии.
+     *
+     * @param taskId идентификатор задачи
+     * @return версия задачи, если задача найдена, иначе null
+     */
+    public Long getTaskVersion(Long taskId) {
+        return taskRepository.findVersionById(taskId).orElse(null);
     }
 
     /**
      * Получает задачу по идентификатору.
+     * Повторные чтения обычно обслуживает кэш второго уровня Hibernate без обращения к базе данных.
      *
      * @param taskId идентификатор задачи
      * @return задача, если она найдена, иначе null
      */
     public Task getTaskById(Long taskId) {
-        logger.info("Received request to get task with ID: {}", taskId); // Логируем получение запроса
         // Ищем задачу по идентификатору
         Optional<Task> optionalTask = taskRepository.findById(taskId);
         if (optionalTask.isPresent()) {
-            logger.info("Task found: {}", optionalTask.get()); // Логируем, если задача найдена
             return optionalTask.get(); // Возвращаем найденную задачу
         } else {
-            logger.warn("Task not found with ID: {}", taskId); // Логируем, если задача не найдена
+            logger.debug("Task not found with ID: {}", taskId); // Логируем, если задача не найдена
             return null; // Возвращаем null, если задача не найдена
         }
     }
 
     /**
-     * Получает список всех задач.
+     * Получает страницу задач с keyset-пагинацией.
+     * Вместо OFFSET используется условие "после позиции курсора", поэтому база читает
+     * только строки запрошенной страницы, как бы далеко ни был пролистан список.
+     * Комментарии всех задач страницы подгружаются одним пакетным запросом
+     * (hibernate.default_batch_fetch_size), а не отдельным запросом на каждую задачу.
      *
-     * @return список задач
+     * @param filter фильтры и сортировка
+     * @param cursor курсор, полученный с предыдущей страницы (null для первой страницы)
+     * @param limit  желаемый размер страницы (null для размера по умолчанию)
+     * @return страница задач с курсором следующей страницы
+     * @throws IllegalArgumentException если курсор имеет неверный формат
      */
-    public List<Task> getAllTasks() {
-        return taskRepository.findAll(); // Возвращаем список всех задач
+    @Transactional
+    public TaskPageDto<Task> getTasksPage(TaskFilter filter, String cursor, Integer limit) {
+        TaskKeyset after = TaskKeyset.parse(cursor, filter.getSortField());
+        int pageSize = resolvePageSize(limit);
+
+        // Запрашиваем на одну запись больше, чтобы без COUNT понять, есть ли следующая страница
+        List<Task> tasks = taskRepository.findPage(filter, after, pageSize + 1, isCacheablePage(filter, after));
+        String nextCursor = null;
+        if (tasks.size() > pageSize) {
+            tasks = tasks.subList(0, pageSize);
+            Task last = tasks.get(pageSize - 1);
+            nextCursor = TaskKeyset.of(last.getTaskId(), last.getCreatedDate(), last.getDeadline(), filter.getSortField())
+                    .encode(filter.getSortField());
+        }
+        // Первая инициализация загружает комментарии сразу для всей страницы, остальные вызовы ничего не делают
+        tasks.forEach(task -> Hibernate.initialize(task.getComments()));
+        return new TaskPageDto<>(tasks, nextCursor);
+    }
+
+    /**
+     * Получает первую страницу задач без фильтров, отсортированных по идентификатору.
+     *
+     * @param cursor курсор, полученный с предыдущей страницы (null для первой страницы)
+     * @param limit  желаемый размер страницы (null для размера по умолчанию)
+     * @return страница задач с курсором следующей страницы
+     */
+    @Transactional
+    public TaskPageDto<Task> getTasksPage(String cursor, Integer limit) {
+        return getTasksPage(new TaskFilter(), cursor, limit);
+    }
+
+    /**
+     * Получает страницу кратких представлений задач: вместо комментариев возвращается только их количество.
+     * Вся страница читается одним запросом.
+     *
+     * @param filter фильтры и сортировка
+     * @param cursor курсор, полученный с предыдущей страницы (null для первой страницы)
+     * @param limit  желаемый размер страницы (null для размера по умолчанию)
+     * @return страница кратких представлений задач с курсором следующей страницы
+     * @throws IllegalArgumentException если курсор имеет неверный формат
+     */
+    public TaskPageDto<TaskSummaryDto> getTaskSummariesPage(TaskFilter filter, String cursor, Integer limit) {
+        TaskKeyset after = TaskKeyset.parse(cursor, filter.getSortField());
+        int pageSize = resolvePageSize(limit);
+
+        List<TaskSummaryDto> tasks = taskRepository.findSummaryPage(filter, after, pageSize + 1, isCacheablePage(filter, after));
+        String nextCursor = null;
+        if (tasks.size() > pageSize) {
+            tasks = tasks.subList(0, pageSize);
+            TaskSummaryDto last = tasks.get(pageSize - 1);
+            nextCursor = TaskKeyset.of(last.getTaskId(), last.getCreatedDate(), last.getDeadline(), filter.getSortField())
+                    .encode(filter.getSortField());
+        }
+        return new TaskPageDto<>(tasks, nextCursor);
+    }
+
+    /**
+     * Определяет, стоит ли сохранять страницу в кэше запросов. Кэшируются только первые страницы
+     * общего списка и фильтров, которые запрашивает каждый открытый список задач; страницы после курсора
+     * и выборки задач одного пользователя почти не повторяются и только вытесняли бы полезные результаты.
+     *
+     * @param filter фильтры и сортировка
+     * @param after  позиция курсора (null для первой страницы)
+     * @return true, если результат запроса нужно кэшировать
+     */
+    private static boolean isCacheablePage(TaskFilter filter, TaskKeyset after) {
+        return after == null && filter.getOwnerId() == null;
+    }
+
+    /**
+     * Приводит запрошенный размер страницы к допустимым границам.
+     *
+     * @param limit запрошенный размер страницы (может быть null)
+     * @return размер страницы в диапазоне от 1 до максимального
+     */
+    private int resolvePageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        return Math.min(limit, maxPageSize);
     }
 
     /**
      * Обновляет существующую задачу.
+     * Конкурентные изменения обнаруживаются по версии задачи без блокировок строк:
+     * UPDATE выполняется с условием на прочитанную версию, и если задачу успели изменить,
+     * выбрасывается ObjectOptimisticLockingFailureException.
      *
-     * @param taskId идентификатор задачи для обновления
-     * @param taskDetails новые данные задачи
+     * @param taskId          идентификатор задачи для обновления
+     * @param taskDetails     новые данные задачи
+     * @param expectedVersion версия, которую видел клиент (null - без проверки)
      * @return обновленная задача
+     * @throws ObjectOptimisticLockingFailureException если версия задачи отличается от ожидаемой
      */
-    public Task updateTask(Long taskId, Task taskDetails) {
-        logger.info("Received request to update task with ID: {}", taskId); // Логируем запрос на обновление
-
+    @Transactional
+    public Task updateTask(Long taskId, Task taskDetails, Long expectedVersion) {
         // Находим задачу по идентификатору, выбрасываем исключение, если задача не найдена
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> {
-                    logger.error("Task not found with ID: {}", taskId); // Логируем ошибку, если задача не найдена
+                    logger.warn("Task not found with ID: {}", taskId); // Логируем ошибку, если задача не найдена
                     return new EntityNotFoundException("Task not found with ID: " + taskId); // Выбрасываем исключение
                 });
+        checkVersion(task, expectedVersion);
 
         // Обновляем поля задачи с новыми значениями
-        logger.info("Updating task with ID: {}", taskId);
         task.setTitle(taskDetails.getTitle()); // Обновляем название задачи
         task.setDescription(taskDetails.getDescription()); // Обновляем описание задачи
         task.setStatus(taskDetails.getStatus()); // Обновляем статус задачи
@@ -87,20 +270,319 @@ public class TaskService {
         task.setCreatedDate(taskDetails.getCreatedDate()); // Обновление даты создания
         task.setDeadline(taskDetails.getDeadline()); // Обновление даты дедлайна
         task.setComments(taskDetails.getComments()); // Обновление комментариев
+        task.setChangeSeq(taskChangeSequence.current());
 
         // Сохраняем обновленную задачу в репозитории и возвращаем ее
         Task updatedTask = taskRepository.save(task);
-        logger.info("Task updated successfully: ID = {}, Updated task = {}", taskId, updatedTask); // Логируем успешное обновление
+        flushTasks("update", taskId, 1); // Конфликт версий обнаруживается до индексации, и индекс не получает отклоненных изменений
+        afterTaskSaved(updatedTask, TaskEventDto.Type.UPDATED);
+        logger.debug("Task updated successfully: ID = {}", taskId); // Логируем успешное обновление
 
         return updatedTask;
     }
 
     /**
-     * Удаляет задачу по идентификатору.
+     * Частично обновляет задачу: изменяются только поля, переданные в patch (не равные null).
+     * Сущность Task помечена @DynamicUpdate, поэтому UPDATE содержит только измененные столбцы,
+     * а комментарии не загружаются и не переписываются.
+     *
+     * @param taskId          идентификатор задачи для обновления
+     * @param patch           новые значения полей
+     * @param expectedVersion версия, которую видел клиент (null - без проверки)
+     * @return обновленная задача
+     * @throws EntityNotFoundException                 если задача не найдена
+     * @throws ObjectOptimisticLockingFailureException если версия задачи отличается от ожидаемой
+     */
+    @Transactional
+    public Task patchTask(Long taskId, TaskPatchDto patch, Long expectedVersion) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new EntityNotFoundException("Task not found with ID: " + taskId));
+        checkVersion(task, expectedVersion);
+
+        boolean textChanged = false; // Изменились ли поля, по которым строится поисковый индекс
+        if (patch.getTitle() != null) {
+            textChanged = !patch.getTitle().equals(task.getTitle());
+            task.setTitle(patch.getTitle());
+        }
+        if (patch.getDescription() != null) {
+            textChanged |= !patch.getDescription().equals(task.getDescription());
+            task.setDescription(patch.getDescription());
+        }
+        if (patch.getStatus() != null) {
+            task.setStatus(patch.getStatus());
+        }
+        if (patch.getPriority() != null) {
+            task.setPriority(patch.getPriority());
+        }
+        if (patch.getCreatedDate() != null) {
+            task.setCreatedDate(patch.getCreatedDate());
+        }
+        if (patch.getDeadline() != null) {
+            task.setDeadline(patch.getDeadline());
+        }
+        task.setChangeSeq(taskChangeSequence.current());
+
+        // Изменения найдены dirty checking, явный save не нужен; UPDATE с проверкой версии
+        // отправляется до индексации, чтобы отклоненные изменения не попали в индекс
+        flushTasks("patch", taskId, 1);
+        if (textChanged) {
+            Hibernate.initialize(task.getComments());
+            afterTaskSaved(task, TaskEventDto.Type.UPDATED);
+        } else {
+            afterTaskChanged(task, TaskEventDto.Type.UPDATED);
+        }
+        logger.debug("Task patched: ID = {}", taskId);
+        return task;
+    }
+
+    /**
+     * Добавляет комментарий к задаче одной вставкой строки, без чтения и перезаписи остальных комментариев.
+     *
+     * @param taskId идентификатор задачи
+     * @param text   текст комментария
+     * @throws EntityNotFoundException если задача не найдена
+     */
+    @Transactional
+    public void addComment(Long taskId, String text) {
+        // Увеличение версии заодно проверяет, что задача существует
+        if (taskRepository.incrementVersion(taskId, taskChangeSequence.current()) == 0 || taskRepository.addComment(taskId, text) == 0) {
+            throw new EntityNotFoundException("Task not found with ID: " + taskId);
+        }
+        taskCacheEvictor.evictTask(taskId);
+        taskSearchIndex.indexText(taskId, text);
+        taskChangeCounter.recordChange();
+        if (taskEventPublisher.hasSubscribers()) {
+            // Задача загружается только для рассылки события, без подписчиков комментарий остается одной вставкой
+            taskRepository.findById(taskId).ifPresent(task ->
+                    taskEventPublisher.publish(TaskEventDto.of(TaskEventDto.Type.UPDATED, task)));
+        }
+    }
+
+    /**
+     * Удаляет комментарий задачи одним запросом. Одинаковые комментарии одной задачи удаляются вместе.
+     *
+     * @param taskId идентификатор задачи
+     * @param text   текст удаляемого комментария
+     * @return количество удаленных комментариев
+     * @throws EntityNotFoundException если у задачи нет такого комментария или задача не найдена
+     */
+    @Transactional
+    public int removeComment(Long taskId, String text) {
+        int removed = taskRepository.removeComment(taskId, text);
+        if (removed == 0) {
+            throw new EntityNotFoundException("Comment not found for task with ID: " + taskId);
+        }
+        taskRepository.incrementVersion(taskId, taskChangeSequence.current());
+        taskCacheEvictor.evictTask(taskId);
+        // Слова удаленного комментария могут встречаться в других полях, поэтому задача переиндексируется целиком
+        taskRepository.findById(taskId).ifPresent(task -> {
+            Hibernate.initialize(task.getComments());
+            afterTaskSaved(task, TaskEventDto.Type.UPDATED);
+        });
+        return removed;
+    }
+
+    /**
+     * Удаляет задачу по идентификатору и оставляет запись об удалении для синхронизации изменений.
      *
      * @param taskId идентификатор задачи, которую нужно удалить
      */
+    @Transactional
     public void deleteTask(Long taskId) {
-        taskRepository.deleteById(taskId); // Удаляем задачу по идентификатору
+        taskRepository.findById(taskId).ifPresent(task -> {
+            taskRepository.delete(task); // Удаляем задачу
+            taskTombstoneRepository.insert(taskId, taskChangeSequence.current(), LocalDateTime.now());
+        });
+        afterTaskDeleted(taskId);
+    }
+
+    /**
+     * Получает изменения задач с номером изменения больше since: созданные и измененные задачи
+     * и идентификаторы удаленных. Задачи и удаления читаются по индексу номера изменения, поэтому
+     * стоимость запроса зависит от количества изменений, а не от размера таблицы.
+     * Изменения одной транзакции имеют один номер и никогда не делятся между ответами; выдаются
+     * только номера не больше стабильного (см. {@link TaskChangeSequence#stableWatermark()}),
+     * чтобы изменение незавершенной транзакции не было пропущено.
+     *
+     * @param since номер изменения из предыдущего ответа (0 для полной синхронизации)
+     * @param limit желаемое количество изменений (null для размера страницы по умолчанию); ответ может
+     *              быть больше, если одна транзакция изменила больше задач
+     * @return изменения и номер для следующего запроса
+     */
+    @Transactional
+    public TaskChangesDto getChanges(long since, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        long upTo = taskChangeSequence.stableWatermark();
+
+        // Задачи и удаления читаются с запасом в одну запись, чтобы понять, есть ли продолжение
+        List<Task> tasks = taskRepository.findChanged(since, upTo, Limit.of(pageSize + 1));
+        List<TaskTombstone> tombstones = taskTombstoneRepository.findChanged(since, upTo, Limit.of(pageSize + 1));
+        long boundary = boundaryChangeSeq(tasks, tombstones, pageSize);
+        if (boundary == 0) {
+            tasks.forEach(task -> Hibernate.initialize(task.getComments()));
+            return new TaskChangesDto(tasks, tombstoneIds(tombstones), Math.max(since, upTo), false);
+        }
+
+        long nextSince;
+        if (hasChangeBelow(tasks, tombstones, boundary)) {
+            // Отдаем изменения до номера, на котором закончилась страница; его изменения придут целиком следующим ответом
+            tasks = tasks.stream().filter(task -> task.getChangeSeq() < boundary).toList();
+            tombstones = tombstones.stream().filter(tombstone -> tombstone.getChangeSeq() < boundary).toList();
+            nextSince = boundary - 1;
+        } else {
+            // Одна транзакция изменила больше задач, чем помещается в страницу: отдаем её изменения целиком
+            tasks = taskRepository.findByChangeSeqOrderByTaskId(boundary);
+            tombstones = taskTombstoneRepository.findByChangeSeqOrderByTaskId(boundary);
+            nextSince = boundary;
+        }
+        tasks.forEach(task -> Hibernate.initialize(task.getComments()));
+        return new TaskChangesDto(tasks, tombstoneIds(tombstones), nextSince, true);
+    }
+
+    /**
+     * Ищет задачи по словам из заголовка, описания и комментариев.
+     * Поиск выполняется по индексу в памяти, из базы загружаются только найденные задачи.
+     *
+     * @param query строка запроса
+     * @param limit максимальное количество результатов (null для размера страницы по умолчанию)
+     * @return найденные задачи, начиная с самых новых
+     */
+    @Transactional
+    public List<Task> searchTasks(String query, Integer limit) {
+        List<Long> ids = taskSearchIndex.search(query, resolvePageSize(limit));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Task> tasksById = new HashMap<>();
+        taskRepository.findAllById(ids).forEach(task -> tasksById.put(task.getTaskId(), task));
+
+        // Сохраняем порядок, в котором задачи вернул индекс
+        List<Task> tasks = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Task task = tasksById.get(id);
+            if (task != null) {
+                Hibernate.initialize(task.getComments());
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Находит номер изменения, на котором заканчивается страница изменений: номер записи с позицией
+     * pageSize в общем порядке задач и удалений.
+     *
+     * @param tasks      задачи в порядке номера изменения
+     * @param tombstones удаления в порядке номера изменения
+     * @param pageSize   размер страницы
+     * @return номер изменения или 0, если все изменения помещаются в страницу
+     */
+    private static long boundaryChangeSeq(List<Task> tasks, List<TaskTombstone> tombstones, int pageSize) {
+        if (tasks.size() + tombstones.size() <= pageSize) {
+            return 0;
+        }
+        int taskIndex = 0;
+        int tombstoneIndex = 0;
+        long changeSeq = 0;
+        // Слияние двух упорядоченных списков до записи с позицией pageSize
+        for (int i = 0; i <= pageSize; i++) {
+            boolean takeTask = tombstoneIndex >= tombstones.size() || (taskIndex < tasks.size()
+                    && tasks.get(taskIndex).getChangeSeq() <= tombstones.get(tombstoneIndex).getChangeSeq());
+            changeSeq = takeTask ? tasks.get(taskIndex++).getChangeSeq() : tombstones.get(tombstoneIndex++).getChangeSeq();
+        }
+        return changeSeq;
+    }
+
+    private static boolean hasChangeBelow(List<Task> tasks, List<TaskTombstone> tombstones, long changeSeq) {
+        return (!tasks.isEmpty() && tasks.get(0).getChangeSeq() < changeSeq)
+                || (!tombstones.isEmpty() && tombstones.get(0).getChangeSeq() < changeSeq);
+    }
+
+    private static List<Long> tombstoneIds(List<TaskTombstone> tombstones) {
+        return tombstones.stream().map(TaskTombstone::getTaskId).toList();
+    }
+
+    /**
+     * Проверяет, что клиент изменяет ту версию задачи, которую он видел.
+     *
+     * @param task            задача, загруженная в текущей транзакции
+     * @param expectedVersion ожидаемая версия или null
+     * @throws ObjectOptimisticLockingFailureException если версии различаются
+     */
+    private static void checkVersion(Task task, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Task.class, task.getTaskId());
+        }
+    }
+
+    /**
+     * Готовит новую задачу к сохранению: идентификатор и версия из запроса игнорируются, назначается номер изменения,
+     * владелец назначается ссылкой без загрузки пользователя из базы данных
+     * (для записи внешнего ключа owner_id достаточно прокси).
+     *
+     * @param task    новая задача
+     * @param ownerId идентификатор владельца или null
+     */
+    private void prepareNewTask(Task task, Long ownerId) {
+        task.setTaskId(null);
+        task.setVersion(null);
+        task.setChangeSeq(taskChangeSequence.current());
+        task.setOwner(ownerId == null ? null : userRepository.getReferenceById(ownerId));
+    }
+
+    /**
+     * Сбрасывает изменения задач в базу данных; длительные сбросы записываются событием JFR.
+     *
+     * @param operation операция (update, patch или createBatch)
+     * @param taskId    идентификатор задачи (0 для пакетного создания)
+     * @param rowCount  количество задач в сбросе
+     */
+    private void flushTasks(String operation, long taskId, int rowCount) {
+        TaskFlushEvent event = new TaskFlushEvent();
+        event.begin();
+        try {
+            taskRepository.flush();
+        } finally {
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.taskId = taskId;
+                event.rowCount = rowCount;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Выполняет действия, общие для всех операций сохранения задачи.
+     *
+     * @param task сохраненная задача
+     * @param type тип события для подписчиков
+     */
+    private void afterTaskSaved(Task task, TaskEventDto.Type type) {
+        taskSearchIndex.index(task);
+        afterTaskChanged(task, type);
+    }
+
+    /**
+     * Отмечает изменение задачи, не затрагивающее поисковый индекс: меняет ETag списков
+     * и рассылает событие подписчикам.
+     *
+     * @param task измененная задача
+     * @param type тип события для подписчиков
+     */
+    private void afterTaskChanged(Task task, TaskEventDto.Type type) {
+        taskChangeCounter.recordChange();
+        taskEventPublisher.publish(TaskEventDto.of(type, task));
+    }
+
+    /**
+     * Выполняет действия, общие для всех операций удаления задачи.
+     *
+     * @param taskId идентификатор удаленной задачи
+     */
+    private void afterTaskDeleted(Long taskId) {
+        taskSearchIndex.remove(taskId);
+        taskChangeCounter.recordChange();
+        taskEventPublisher.publish(TaskEventDto.deleted(taskId));
     }
 }
\ No newline at end of file
@@ -1,7 +1,8 @@
 package ru.tz1.taskTracker.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,6 +10,9 @@ import ru.tz1.taskTracker.entity.User;
 import ru.tz1.taskTracker.entity.UserRegistrationDto;
 import ru.tz1.taskTracker.repository.UserRepository;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * Сервис для регистрации пользователей.
  * Обеспечивает функциональность для создания новых пользователей и управления процессом регистрации.
@@ -22,16 +26,27 @@ public class UserRegistrationService {
     private UserRepository userRepository; // Репозиторий для работы с пользователями
 
     @Autowired
-    private PasswordEncoder passwordEncoder; // Кодировщик паролей для хеширования
+    private PasswordHashingService passwordHashingService; // Пул потоков для хеширования паролей
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService; // Сервис с кэшем данных аутентификации
+
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private Executor taskExecutor; // Общий пул приложения для сохранения пользователя после хеширования
 
     /**
      * Регистрирует нового пользователя.
+     * Проверки выполняются сразу, хеширование пароля — на пуле потоков BCrypt, а сохранение —
+     * на общем пуле приложения: ожидание соединения и запись в базу не занимают потоки BCrypt,
+     * которых не хватило бы для входа пользователей.
      *
      * @param userDto Данные для регистрации пользователя, включая имя, email и пароли.
-     * @return Сообщение об успешной регистрации.
+     * @return Future с сообщением об успешной регистрации; завершается RejectedExecutionException,
+     *         если пул BCrypt перегружен.
      * @throws Exception Если возникла ошибка, например, если email уже занят или пароли не совпадают.
      */
-    public String registerNewUser(UserRegistrationDto userDto) throws Exception {
+    public CompletableFuture<String> registerNewUser(UserRegistrationDto userDto) throws Exception {
         logger.info("Attempting to register user with email: {}", userDto.getEmail());
 
         // Проверяем, существует ли пользователь с таким email
@@ -46,16 +61,20 @@ public class UserRegistrationService {
             throw new Exception("Пароли не совпадают");
         }
 
-        // Создаем нового пользователя
-        User newUser = new User();
-        newUser.setName(userDto.getName()); // Устанавливаем имя пользователя
-        newUser.setEmail(userDto.getEmail()); // Устанавливаем email пользователя
-        newUser.setPassword(passwordEncoder.encode(userDto.getPassword())); // Хешируем пароль перед сохранением
-        newUser.setRole("USER"); // Устанавливаем роль по умолчанию "USER"
-
-        // Сохраняем нового пользователя в базе данных
-        userRepository.save(newUser);
-        logger.info("User registered successfully: {}", userDto.getEmail());
-        return "Регистрация прошла успешно";
+        // Хешируем пароль на пуле BCrypt, а пользователя сохраняем уже вне его
+        return passwordHashingService.encode(userDto.getPassword()).thenApplyAsync(encodedPassword -> {
+            // Создаем нового пользователя
+            User newUser = new User();
+            newUser.setName(userDto.getName()); // Устанавливаем имя пользователя
+            newUser.setEmail(userDto.getEmail()); // Устанавливаем email пользователя
+            newUser.setPassword(encodedPassword); // Сохраняем хэш пароля
+            newUser.setRole("USER"); // Устанавливаем роль по умолчанию "USER"
+
+            // Сохраняем нового пользователя в базе данных
+            userRepository.save(newUser);
+            userDetailsService.evict(newUser.getEmail());
+            logger.info("User registered successfully: {}", userDto.getEmail());
+            return "Регистрация прошла успешно";
+        }, taskExecutor);
     }
 }
\ No newline at end of file
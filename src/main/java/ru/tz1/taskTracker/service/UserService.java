@@ -2,14 +2,22 @@ package ru.tz1.taskTracker.service;
 
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.tz1.taskTracker.entity.TaskEventDto;
 import ru.tz1.taskTracker.entity.User;
+import ru.tz1.taskTracker.repository.TaskRepository;
 import ru.tz1.taskTracker.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongFunction;
+import java.util.function.ToIntFunction;
 
 /**
  * Сервис для управления пользователями.
@@ -24,11 +32,39 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder; // Интерфейс для хеширования паролей
 
+    @Autowired
+    private CustomUserDetailsService userDetailsService; // Сервис с кэшем данных аутентификации
+
+    @Autowired
+    private PasswordHashingService passwordHashingService; // Пул потоков для BCrypt
+
+    @Autowired
+    private TransactionTemplate transactionTemplate; // Транзакции для удаления пользователей порциями
+
+    @Autowired
+    private TaskRepository taskRepository; // Задачи удаляемых пользователей теряют владельца
+
+    @Autowired
+    private TaskChangeCounter taskChangeCounter; // Счетчик изменений для ETag списков задач
+
+    @Autowired
+    private TaskEventPublisher taskEventPublisher; // Поток событий изменения задач
+
+    @Autowired
+    private TaskChangeSequence taskChangeSequence; // Номера изменений для синхронизации задач
+
+    @Value("${users.delete.chunk-size:1000}")
+    private int deleteChunkSize; // Количество пользователей, удаляемых в одной транзакции
+
+    private static final String ADMIN_ROLE = "ADMIN";
+
     private static final Logger logger = LoggerFactory.getLogger(UserService.class); // Логгер для отслеживания событий
 
     /**
      * Метод для регистрации нового пользователя.
-     * Перед сохранением пароль хэшируется.
+     * Перед сохранением пароль хэшируется в вызывающем потоке, без пула BCrypt: метод вызывается только
+     * при запуске приложения (AdminUserInitializer), а регистрация через HTTP идет через
+     * {@link UserRegistrationService} и {@link PasswordHashingService}.
      *
      * @param user пользователь для регистрации
      * @return зарегистрированный пользователь
@@ -37,6 +73,7 @@ public class UserService {
         logger.info("Registering new user with email: {}", user.getEmail());
         user.setPassword(encodePassword(user.getPassword()));
         User saved = userRepository.save(user);
+        userDetailsService.evict(user.getEmail());
         logger.info("User registered successfully: {}", user.getEmail());
         return saved;
     }
@@ -70,9 +107,15 @@ public class UserService {
      */
     @Transactional
     public void deleteUserById(Long userId) {
-        if (userRepository.existsById(userId)) {
+        User user = userRepository.findById(userId).orElse(null);
+        if (user != null) {
             logger.info("Deleting user with id {}", userId);
+            // База данных обнулит owner_id задач пользователя, поэтому их версии (ETag) меняются
+            taskRepository.incrementVersionByOwnerIds(List.of(userId), taskChangeSequence.current());
+            taskChangeCounter.recordChange();
+            taskEventPublisher.publish(TaskEventDto.reset());
             userRepository.deleteById(userId);
+            userDetailsService.evict(user.getEmail());
         } else {
             logger.warn("User with id {} not found", userId);
             throw new IllegalArgumentException("Пользователь с id " + userId + " не найден.");
@@ -81,22 +124,79 @@ public class UserService {
 
     /**
      * Метод для удаления всех пользователей, кроме администраторов.
+     * Пользователи удаляются запросами DELETE ... WHERE порциями по первичному ключу,
+     * каждая порция в отдельной транзакции, без загрузки сущностей в память.
+     *
+     * @return количество удаленных пользователей
      */
-    @Transactional
-    public void deleteNonAdminUsers() {
+    public int deleteNonAdminUsers() {
         logger.info("Deleting non-admin users");
-        List<User> nonAdminUsers = userRepository.findByRoleNot("ADMIN");
-        userRepository.deleteAll(nonAdminUsers);
+        int deleted = deleteInChunks(
+                afterId -> userRepository.findIdsByRoleNot(ADMIN_ROLE, afterId, Limit.of(deleteChunkSize)),
+                ids -> userRepository.deleteByIdsAndRoleNot(ids, ADMIN_ROLE));
+        userDetailsService.evictAll();
+        logger.info("Deleted {} non-admin users", deleted);
+        return deleted;
     }
 
     /**
      * Метод для полного очищения базы данных в случае если изменится
      * структура БД и надо будет создать всё заново.
+     *
+     * @return количество удаленных пользователей
      */
-    @Transactional
-    public void deleteAllUsers() {
+    public int deleteAllUsers() {
         logger.warn("Deleting all users from database");
-        userRepository.deleteAll();
+        int deleted = deleteInChunks(
+                afterId -> userRepository.findIdsAfter(afterId, Limit.of(deleteChunkSize)),
+                userRepository::deleteByIds);
+        userDetailsService.evictAll();
+        logger.warn("Deleted {} users", deleted);
+        return deleted;
+    }
+
+    /**
+     * Удаляет пользователей порциями: находит идентификаторы следующей порции и удаляет их одним запросом.
+     * Каждая порция выполняется в отдельной короткой транзакции, поэтому блокировки не держатся
+     * на всё время удаления большой таблицы. Версии задач удаляемых пользователей увеличиваются
+     * в той же транзакции, так как база данных обнуляет у этих задач владельца.
+     *
+     * @param nextIds   поиск идентификаторов порции, следующих за переданным идентификатором
+     * @param deleteIds удаление пользователей порции, возвращает количество удаленных строк
+     * @return общее количество удаленных пользователей
+     */
+    private int deleteInChunks(LongFunction<List<Long>> nextIds, ToIntFunction<List<Long>> deleteIds) {
+        int deleted = 0;
+        long afterId = 0;
+        while (true) {
+            final long position = afterId;
+            DeletedChunk chunk = transactionTemplate.execute(status -> {
+                List<Long> ids = nextIds.apply(position);
+                if (ids.isEmpty()) {
+                    return null;
+                }
+                taskRepository.incrementVersionByOwnerIds(ids, taskChangeSequence.current());
+                return new DeletedChunk(ids.get(ids.size() - 1), deleteIds.applyAsInt(ids));
+            });
+            if (chunk == null) {
+                if (deleted > 0) {
+                    taskChangeCounter.recordChange();
+                    taskEventPublisher.publish(TaskEventDto.reset());
+                }
+                return deleted;
+            }
+            deleted += chunk.deleted();
+            afterId = chunk.lastId();
+        }
+    }
+
+    /**
+     * Результат удаления одной порции пользователей.
+     *
+     * @param lastId  наибольший идентификатор в порции
+     * @param deleted количество удаленных строк
+     */
+    private record DeletedChunk(long lastId, int deleted) {
     }
 
     /**
@@ -130,6 +230,21 @@ public class UserService {
         return matches; // Возвращаем результат
     }
 
+    /**
+     * Асинхронная проверка валидности пароля на отдельном пуле потоков BCrypt.
+     * Используется в обработчиках HTTP-запросов, чтобы не занимать потоки сервера на время хеширования.
+     *
+     * @param rawPassword     сырой (нехэшированный) пароль
+     * @param encodedPassword хэшированный пароль
+     * @return future с результатом проверки; завершается RejectedExecutionException, если пул BCrypt перегружен
+     */
+    public CompletableFuture<Boolean> isPasswordValidAsync(String rawPassword, String encodedPassword) {
+        if (!isPasswordHashValid(encodedPassword)) {
+            return CompletableFuture.completedFuture(false); // Невалидный формат хэша, BCrypt не нужен
+        }
+        return passwordHashingService.matches(rawPassword, encodedPassword);
+    }
+
     /**
      * Метод для проверки, является ли строка допустимым хэшем пароля.
      *
@@ -0,0 +1,88 @@
+package ru.tz1.taskTracker.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <h1>Чтение CSV</h1>
+ * <p>Читает строки CSV (RFC 4180) из переданного Reader по одной, не загружая весь файл в память.
+ * Поддерживает значения в кавычках, удвоенные кавычки и переводы строк внутри значений.
+ * Reader желательно передавать буферизованным.</p>
+ */
+public class CsvReader {
+
+    private final Reader reader;
+    private int pushedBack = -2; // Символ, прочитанный наперед (-2, если его нет)
+
+    /**
+     * <h2>Конструктор</h2>
+     *
+     * @param reader Источник текста; закрывается вызывающей стороной
+     */
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * <h2>Чтение строки</h2>
+     *
+     * @return Значения полей следующей строки или {@code null}, если данные закончились
+     * @throws IOException При ошибке чтения или незакрытой кавычке в конце данных
+     */
+    public List<String> readRow() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unexpected end of data inside quoted value");
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pushedBack = next;
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return reader.read();
+    }
+}
@@ -0,0 +1,58 @@
+package ru.tz1.taskTracker.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * <h1>Запись CSV</h1>
+ * <p>Пишет строки CSV (RFC 4180) в переданный Writer без накопления в памяти.
+ * Значения, содержащие запятую, кавычку или перевод строки, заключаются в кавычки,
+ * а кавычки внутри значения удваиваются. Значение null записывается как пустое поле.</p>
+ */
+public class CsvWriter {
+
+    private final Writer writer;
+
+    /**
+     * <h2>Конструктор</h2>
+     *
+     * @param writer Приемник текста; закрывается вызывающей стороной
+     */
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * <h2>Запись строки</h2>
+     *
+     * @param values Значения полей строки
+     * @throws IOException При ошибке записи
+     */
+    public void writeRow(String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeField(values[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
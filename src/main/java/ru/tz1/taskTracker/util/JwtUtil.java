@@ -1,22 +1,53 @@
 package ru.tz1.taskTracker.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import ru.tz1.taskTracker.jfr.JwtParseEvent;
 
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 /**
  * <h1>Утилита для работы с JSON Web Token (JWT)</h1>
  * <p>Предоставляет методы для генерации, валидации и извлечения информации из токенов.</p>
+ * <p>Проверенные утверждения (claims) кэшируются по самому токену до истечения его срока действия,
+ * поэтому повторные запросы с тем же токеном не проверяют подпись и не разбирают JSON заново.</p>
  */
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String SECRET_KEY;
+    private final String SECRET_KEY;
+
+    /**
+     * <h2>Кэш проверенных утверждений</h2>
+     * <p>Ограничен по размеру; каждая запись удаляется в момент истечения срока действия токена.</p>
+     */
+    private final Cache<String, Claims> claimsCache;
+
+    /**
+     * <h2>Конструктор утилиты</h2>
+     *
+     * @param secretKey          Секретный ключ для подписи токенов
+     * @param claimsCacheMaxSize Максимальное количество токенов в кэше утверждений
+     */
+    @Autowired
+    public JwtUtil(@Value("${jwt.secret}") String secretKey,
+                   @Value("${jwt.claims-cache.max-size:10000}") long claimsCacheMaxSize) {
+        this.SECRET_KEY = secretKey;
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new ClaimsExpiry())
+                .recordStats()
+                .build();
+    }
 
     /**
      * <h2>Генерация токена</h2>
@@ -43,8 +74,19 @@ public class JwtUtil {
      * @return {@code true}, если токен валиден, иначе {@code false}
      */
     public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        return validateToken(extractClaims(token), username);
+    }
+
+    /**
+     * <h2>Проверка валидности уже разобранного токена</h2>
+     * <p>Проверяет утверждения, полученные через {@link #extractClaims(String)}, без повторного разбора токена.</p>
+     *
+     * @param claims   Утверждения токена
+     * @param username Электронная почта пользователя, к которому относится токен
+     * @return {@code true}, если токен валиден, иначе {@code false}
+     */
+    public Boolean validateToken(Claims claims, String username) {
+        return (claims.getSubject().equals(username) && !isTokenExpired(claims));
     }
 
     /**
@@ -55,7 +97,43 @@ public class JwtUtil {
      * @return Электронная почта, содержащаяся в токене
      */
     public String extractUsername(String token) {
-        return extractAllClaims(token).getSubject();
+        return extractClaims(token).getSubject();
+    }
+
+    /**
+     * <h2>Извлечение проверенных утверждений</h2>
+     * <p>Возвращает утверждения токена из кэша, а при промахе проверяет подпись, разбирает токен
+     * и сохраняет результат в кэш. Невалидные токены не кэшируются. Длительность записывается
+     * в событие JFR {@link JwtParseEvent}.</p>
+     *
+     * @param token JWT, из которого нужно извлечь утверждения
+     * @return Объект Claims, содержащий данные токена
+     * @throws io.jsonwebtoken.JwtException если подпись неверна, токен поврежден или истек
+     */
+    public Claims extractClaims(String token) {
+        JwtParseEvent event = new JwtParseEvent();
+        event.begin();
+        Claims claims = claimsCache.getIfPresent(token);
+        event.cacheHit = claims != null;
+        try {
+            if (claims == null) {
+                claims = extractAllClaims(token);
+                claimsCache.put(token, claims);
+            }
+            event.valid = true;
+            return claims;
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * <h2>Статистика кэша утверждений</h2>
+     *
+     * @return Количество попаданий, промахов и вытеснений кэша утверждений
+     */
+    public CacheStats getClaimsCacheStats() {
+        return claimsCache.stats();
     }
 
     /**
@@ -73,10 +151,39 @@ public class JwtUtil {
      * <h2>Проверка истечения срока токена</h2>
      * <p>Проверяет, истек ли токен.</p>
      *
-     * @param token JWT для проверки
+     * @param claims Утверждения токена
      * @return {@code true}, если токен истек, иначе {@code false}
      */
-    private Boolean isTokenExpired(String token) {
-        return extractAllClaims(token).getExpiration().before(new Date());
+    private Boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
+    }
+
+    /**
+     * <h2>Срок хранения записи кэша</h2>
+     * <p>Запись живет ровно до истечения срока действия токена; токены без срока не хранятся дольше часа.</p>
+     */
+    private static class ClaimsExpiry implements Expiry<String, Claims> {
+
+        private static final long DEFAULT_TTL_NANOS = TimeUnit.HOURS.toNanos(1);
+
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return DEFAULT_TTL_NANOS;
+            }
+            long millisLeft = expiration.getTime() - System.currentTimeMillis();
+            return Math.max(0L, TimeUnit.MILLISECONDS.toNanos(millisLeft));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
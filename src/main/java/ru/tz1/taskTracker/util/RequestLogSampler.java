@@ -0,0 +1,41 @@
+package ru.tz1.taskTracker.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * <h1>Выборка логов запросов</h1>
+ * <p>Решает, нужно ли писать подробный лог для текущего запроса. Подробные логи на каждый запрос
+ * дороже самой обработки, поэтому записывается только заданная доля запросов.
+ * Ошибки и предупреждения выборке не подлежат и пишутся всегда.</p>
+ */
+@Component
+public class RequestLogSampler {
+
+    private final double sampleRate;
+
+    /**
+     * <h2>Конструктор</h2>
+     *
+     * @param sampleRate Доля запросов (от 0 до 1), для которых пишется подробный лог
+     */
+    @Autowired
+    public RequestLogSampler(@Value("${logging.sampling.request-rate:0.01}") double sampleRate) {
+        this.sampleRate = Math.max(0.0, Math.min(1.0, sampleRate));
+    }
+
+    /**
+     * <h2>Проверка выборки</h2>
+     *
+     * @return {@code true}, если подробный лог текущего запроса нужно записать
+     */
+    public boolean sample() {
+        if (sampleRate >= 1.0) {
+            return true;
+        }
+        return sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+}
@@ -0,0 +1,38 @@
+package ru.tz1.taskTracker.util;
+
+import ru.tz1.taskTracker.entity.Task;
+
+/**
+ * <h1>Проверка задач</h1>
+ * <p>Правила валидации задачи, общие для создания, обновления, пакетного создания и импорта.</p>
+ */
+public final class TaskValidator {
+
+    private TaskValidator() {
+    }
+
+    /**
+     * <h2>Проверка задачи</h2>
+     *
+     * @param task Задача для проверки
+     * @return Описание первой найденной ошибки или {@code null}, если задача валидна
+     */
+    public static String validate(Task task) {
+        if (task == null) {
+            return "Task is missing";
+        }
+        if (task.getTitle() == null || task.getTitle().length() < 3) {
+            return "Title is too short";
+        }
+        if (task.getDescription() == null || task.getDescription().length() < 10) {
+            return "Description is too short";
+        }
+        if (task.getStatus() == null) {
+            return "Status is required";
+        }
+        if (task.getPriority() == null) {
+            return "Priority is required";
+        }
+        return null;
+    }
+}
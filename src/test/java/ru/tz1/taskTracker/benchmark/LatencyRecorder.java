@@ -0,0 +1,87 @@
+package ru.tz1.taskTracker.benchmark;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Накопитель задержек для бенчмарков на основе HdrHistogram: не хранит каждое измерение,
+ * поэтому подходит для длительных нагрузочных прогонов и точно считает высокие перцентили (p99.9).
+ */
+public class LatencyRecorder {
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final String name; // Название операции в отчете
+    private final Histogram histogram = new ConcurrentHistogram(3); // Длительности в наносекундах, 3 значащие цифры
+
+    public LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Записывает длительность одной операции.
+     *
+     * @param startNanos значение System.nanoTime() в начале операции
+     */
+    public void record(long startNanos) {
+        histogram.recordValue(System.nanoTime() - startNanos);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long count() {
+        return histogram.getTotalCount();
+    }
+
+    /**
+     * Возвращает перцентиль задержки в миллисекундах.
+     *
+     * @param percentile перцентиль от 0 до 100
+     * @return задержка в миллисекундах
+     */
+    public double percentileMillis(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Добавляет измерения другого накопителя (для итоговой строки по всем операциям).
+     *
+     * @param other накопитель, измерения которого добавляются
+     */
+    public void add(LatencyRecorder other) {
+        histogram.add(other.histogram);
+    }
+
+    /**
+     * Формирует строку отчета: количество, пропускную способность и перцентили.
+     *
+     * @param durationSeconds длительность измерения в секундах
+     * @return строка отчета
+     */
+    public String report(double durationSeconds) {
+        return String.format("%-24s count=%-8d throughput=%8.1f/s  p50=%8.2f ms  p99=%8.2f ms  p99.9=%8.2f ms  max=%8.2f ms",
+                name, count(), count() / durationSeconds, percentileMillis(50), percentileMillis(99),
+                percentileMillis(99.9), histogram.getMaxValue() / NANOS_PER_MILLI);
+    }
+
+    /**
+     * Сохраняет распределение перцентилей в формате .hgrm (открывается HdrHistogram Plotter).
+     *
+     * @param file файл отчета
+     * @throws IOException при ошибке записи
+     */
+    public void writePercentiles(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, NANOS_PER_MILLI);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package ru.tz1.taskTracker.benchmark;
+
+import ch.qos.logback.classic.Level;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.tz1.taskTracker.controller.TaskController;
+import ru.tz1.taskTracker.entity.Task;
+import ru.tz1.taskTracker.entity.TaskPriority;
+import ru.tz1.taskTracker.entity.TaskStatus;
+import ru.tz1.taskTracker.util.RequestLogSampler;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Бенчмарк стоимости логирования на горячем пути создания задачи.
+ * Сравнивает прежний вариант (четыре System.out.println со склейкой строк и Task.toString() на каждый запрос,
+ * вывод синхронизирован и сбрасывается после каждой строки) с текущим: логирование через SLF4J
+ * с проверкой уровня и выборкой запросов (RequestLogSampler) через логгер TaskController.
+ * Бенчмарк запускается без Spring, поэтому logback-spring.xml не загружается и уровень логгера по умолчанию
+ * был бы DEBUG; уровень задается явно, и отдельно измеряются рабочий вариант (INFO, DEBUG выключен)
+ * и вариант с включенным DEBUG.
+ * Вывод System.out (в том числе консоль logback) перенаправляется во временный файл,
+ * чтобы не засорять консоль сборки.
+ * Запуск: mvn test -Pbenchmark -Dtest=LoggingOverheadBenchmark
+ * Параметры: -Dbenchmark.durationSeconds, -Dbenchmark.threads.
+ */
+@Tag("benchmark")
+public class LoggingOverheadBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskController.class);
+
+    @Test
+    public void systemOutVersusLevelGatedLogging() throws Exception {
+        long durationSeconds = Long.getLong("benchmark.durationSeconds", 10);
+        int threads = Integer.getInteger("benchmark.threads", 8);
+
+        File sink = File.createTempFile("logging-overhead", ".log");
+        sink.deleteOnExit();
+        PrintStream console = System.out;
+        RequestLogSampler sampler = new RequestLogSampler(0.01);
+
+        ch.qos.logback.classic.Logger logbackLogger = (ch.qos.logback.classic.Logger) logger;
+        Level previousLevel = logbackLogger.getLevel();
+        double legacyThroughput;
+        double disabledThroughput;
+        double enabledThroughput;
+        try (PrintStream redirected = new PrintStream(new FileOutputStream(sink), true)) {
+            System.setOut(redirected);
+            legacyThroughput = measure(threads, durationSeconds, task -> {
+                System.out.println("Received task for creation: " + task);
+                if (isValidTask(task)) {
+                    System.out.println("Task is valid: " + task);
+                }
+                System.out.println("Task created successfully: " + task);
+            });
+            Consumer<Task> gated = task -> {
+                if (isValidTask(task) && logger.isDebugEnabled() && sampler.sample()) {
+                    logger.debug("Task created: ID = {}, title = '{}'", task.getTaskId(), task.getTitle());
+                }
+            };
+            logbackLogger.setLevel(Level.INFO); // Уровень рабочей конфигурации (logback-spring.xml)
+            disabledThroughput = measure(threads, durationSeconds, gated);
+            logbackLogger.setLevel(Level.DEBUG);
+            enabledThroughput = measure(threads, durationSeconds, gated);
+        } finally {
+            logbackLogger.setLevel(previousLevel);
+            System.setOut(console);
+        }
+
+        System.out.printf("%-28s throughput=%12.1f/s%n", "System.out.println", legacyThroughput);
+        System.out.printf("%-28s throughput=%12.1f/s%n", "SLF4J gated, DEBUG disabled", disabledThroughput);
+        System.out.printf("%-28s throughput=%12.1f/s%n", "SLF4J gated, DEBUG enabled", enabledThroughput);
+        System.out.printf("System.out overhead: x%.1f (DEBUG disabled), x%.1f (DEBUG enabled)%n",
+                disabledThroughput / Math.max(legacyThroughput, 1), enabledThroughput / Math.max(legacyThroughput, 1));
+        assertTrue(legacyThroughput > 0 && disabledThroughput > 0 && enabledThroughput > 0);
+    }
+
+    /**
+     * Запускает обработчик в нескольких потоках в течение заданного времени.
+     *
+     * @return количество обработанных "запросов" в секунду
+     */
+    private static double measure(int threads, long durationSeconds, Consumer<Task> handler) throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder("request");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            final long seed = t;
+            workers.submit(() -> {
+                long id = seed;
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    handler.accept(newTask(id++));
+                    recorder.record(start);
+                }
+            });
+        }
+        workers.shutdown();
+        assertTrue(workers.awaitTermination(durationSeconds + 30, TimeUnit.SECONDS));
+        return recorder.count() / (double) durationSeconds;
+    }
+
+    private static Task newTask(long id) {
+        return new Task(id, "Task " + id, "Description of task " + id, TaskStatus.WAITING, TaskPriority.MEDIUM,
+                LocalDate.now(), LocalDate.now().plusDays(7), new ArrayList<>(List.of("first comment")));
+    }
+
+    private static boolean isValidTask(Task task) {
+        return task.getTitle() != null && task.getTitle().length() >= 3
+                && task.getDescription() != null && task.getDescription().length() >= 10;
+    }
+}
@@ -0,0 +1,151 @@
+package ru.tz1.taskTracker.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Бенчмарк "шторма входов": много потоков одновременно вызывают POST /api/auth/login,
+ * а параллельно несколько клиентов читают GET /tasks. Показывает пропускную способность входа,
+ * количество быстрых отказов 503 и p99 задержки API задач под такой нагрузкой.
+ * Запуск: mvn test -Pbenchmark -Dtest=LoginStormBenchmark
+ * Параметры: -Dbenchmark.durationSeconds, -Dbenchmark.loginThreads, -Dbenchmark.taskThreads.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:login-storm;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework.security=INFO"
+})
+public class LoginStormBenchmark {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${admin.email}")
+    private String adminEmail;
+
+    @Value("${admin.password}")
+    private String adminPassword;
+
+    @Test
+    public void loginStormWithTaskTraffic() throws Exception {
+        long durationSeconds = Long.getLong("benchmark.durationSeconds", 15);
+        int loginThreads = Integer.getInteger("benchmark.loginThreads", 64);
+        int taskThreads = Integer.getInteger("benchmark.taskThreads", 8);
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        HttpResponse<String> firstLogin = client.send(loginRequest(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, firstLogin.statusCode());
+        String token = objectMapper.readTree(firstLogin.body()).get("token").asText();
+        for (int i = 0; i < 20; i++) {
+            client.send(createTaskRequest(token, i), HttpResponse.BodyHandlers.discarding());
+        }
+
+        LatencyRecorder logins = new LatencyRecorder("login (200)");
+        LatencyRecorder rejectedLogins = new LatencyRecorder("login rejected (503)");
+        LatencyRecorder taskReads = new LatencyRecorder("GET /tasks");
+        AtomicLong errors = new AtomicLong();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        ExecutorService workers = Executors.newFixedThreadPool(loginThreads + taskThreads);
+        for (int i = 0; i < loginThreads; i++) {
+            workers.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        int status = client.send(loginRequest(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                        if (status == 200) {
+                            logins.record(start);
+                        } else if (status == 503) {
+                            rejectedLogins.record(start);
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            });
+        }
+        HttpRequest listTasks = HttpRequest.newBuilder(uri("/tasks?limit=20"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        for (int i = 0; i < taskThreads; i++) {
+            workers.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        if (client.send(listTasks, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                            taskReads.record(start);
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        assertTrue(workers.awaitTermination(durationSeconds + 60, TimeUnit.SECONDS));
+
+        System.out.printf("Login storm: %d login threads, %d task threads, %d s%n", loginThreads, taskThreads, durationSeconds);
+        System.out.println(logins.report(durationSeconds));
+        System.out.println(rejectedLogins.report(durationSeconds));
+        System.out.println(taskReads.report(durationSeconds));
+        System.out.println("errors: " + errors.get());
+
+        assertTrue(logins.count() > 0);
+        assertTrue(taskReads.count() > 0);
+    }
+
+    private HttpRequest loginRequest() {
+        String body = objectMapper.createObjectNode()
+                .put("email", adminEmail)
+                .put("password", adminPassword)
+                .toString();
+        return HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest createTaskRequest(String token, int index) {
+        JsonNode task = objectMapper.createObjectNode()
+                .put("title", "Benchmark task " + index)
+                .put("description", "Task created by the login storm benchmark")
+                .put("status", "в ожидании")
+                .put("priority", "средний")
+                .put("createdDate", "2024-01-01")
+                .put("deadline", "2024-12-31");
+        return HttpRequest.newBuilder(uri("/tasks"))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.ofString(task.toString()))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,260 @@
+package ru.tz1.taskTracker.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Сквозной нагрузочный бенчмарк HTTP API задач. Приложение запускается на H2 (в памяти или в файле);
+ * каждый клиент входит через POST /api/auth/login, а затем до окончания времени выполняет смесь
+ * GET /tasks, POST /tasks, PUT /tasks/{id} и DELETE /tasks/{id} в заданной пропорции.
+ * Изменяются и удаляются только задачи, созданные тем же клиентом, поэтому клиенты не мешают друг другу.
+ * Первые секунды прогрева не учитываются. По каждой операции и в целом выводятся пропускная способность
+ * и перцентили p50/p99/p99.9, распределения сохраняются в target/loadtest/*.hgrm.
+ * Запуск: mvn test -Pbenchmark -Dtest=TaskApiLoadBenchmark
+ * Параметры: -Dloadtest.durationSeconds, -Dloadtest.warmupSeconds, -Dloadtest.concurrency,
+ * -Dloadtest.mix (например, get=60,post=15,put=15,delete=10), -Dloadtest.seedTasks,
+ * -Dloadtest.datasourceUrl (например, jdbc:h2:file:./target/loadtest/db для базы в файле).
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework.security=INFO"
+})
+public class TaskApiLoadBenchmark {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final List<String> OPERATIONS = List.of("get", "post", "put", "delete");
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${admin.email}")
+    private String adminEmail;
+
+    @Value("${admin.password}")
+    private String adminPassword;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+                () -> System.getProperty("loadtest.datasourceUrl", "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1"));
+    }
+
+    @Test
+    public void mixedTaskApiLoad() throws Exception {
+        long durationSeconds = Long.getLong("loadtest.durationSeconds", 30);
+        long warmupSeconds = Long.getLong("loadtest.warmupSeconds", 5);
+        int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+        int seedTasks = Integer.getInteger("loadtest.seedTasks", 200);
+        String mix = System.getProperty("loadtest.mix", "get=60,post=15,put=15,delete=10");
+        int[] weights = parseMix(mix);
+
+        String seedToken = login(new LatencyRecorder("seed login"));
+        for (int i = 0; i < seedTasks; i++) {
+            createTask(seedToken, i);
+        }
+
+        LatencyRecorder logins = new LatencyRecorder("POST /api/auth/login");
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        recorders.put("get", new LatencyRecorder("GET /tasks"));
+        recorders.put("post", new LatencyRecorder("POST /tasks"));
+        recorders.put("put", new LatencyRecorder("PUT /tasks/{id}"));
+        recorders.put("delete", new LatencyRecorder("DELETE /tasks/{id}"));
+        AtomicLong errors = new AtomicLong();
+
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long deadline = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < concurrency; i++) {
+            workers.submit(() -> runClient(logins, recorders, weights, measureFrom, deadline, errors));
+        }
+        workers.shutdown();
+        assertTrue(workers.awaitTermination(warmupSeconds + durationSeconds + 120, TimeUnit.SECONDS));
+
+        LatencyRecorder total = new LatencyRecorder("total (without login)");
+        recorders.values().forEach(total::add);
+        Path reportDir = Path.of("target", "loadtest");
+        System.out.printf("Task API load: %d clients, %d s (+%d s warmup), mix %s%n",
+                concurrency, durationSeconds, warmupSeconds, mix);
+        System.out.println(logins.report(durationSeconds));
+        for (Map.Entry<String, LatencyRecorder> entry : recorders.entrySet()) {
+            System.out.println(entry.getValue().report(durationSeconds));
+            entry.getValue().writePercentiles(reportDir.resolve(entry.getKey() + ".hgrm"));
+        }
+        System.out.println(total.report(durationSeconds));
+        total.writePercentiles(reportDir.resolve("total.hgrm"));
+        System.out.println("errors: " + errors.get() + ", percentile distributions: " + reportDir.toAbsolutePath());
+
+        assertTrue(total.count() > 0);
+    }
+
+    /**
+     * Сценарий одного клиента: вход и операции с задачами в заданной пропорции до окончания времени.
+     */
+    private void runClient(LatencyRecorder logins, Map<String, LatencyRecorder> recorders, int[] weights,
+                           long measureFrom, long deadline, AtomicLong errors) {
+        Deque<Long> ownTasks = new ArrayDeque<>(); // Задачи, созданные этим клиентом
+        String token;
+        try {
+            token = login(logins);
+        } catch (Exception e) {
+            errors.incrementAndGet();
+            return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int sequence = 0;
+        while (System.nanoTime() < deadline) {
+            String operation = pickOperation(weights, random.nextInt(100));
+            if (ownTasks.isEmpty() && (operation.equals("put") || operation.equals("delete"))) {
+                operation = "post"; // Изменять пока нечего
+            }
+            long start = System.nanoTime();
+            try {
+                boolean ok = switch (operation) {
+                    case "get" -> send(get("/tasks?limit=20", token)) == 200;
+                    case "post" -> {
+                        Long taskId = createTask(token, sequence++);
+                        if (taskId != null) {
+                            ownTasks.addLast(taskId);
+                        }
+                        yield taskId != null;
+                    }
+                    case "put" -> send(put(ownTasks.peekLast(), token, sequence++)) == 200;
+                    default -> send(delete(ownTasks.pollFirst(), token)) == 200;
+                };
+                if (!ok) {
+                    errors.incrementAndGet();
+                } else if (start >= measureFrom) {
+                    recorders.get(operation).record(start);
+                }
+            } catch (Exception e) {
+                errors.incrementAndGet();
+            }
+        }
+    }
+
+    private static String pickOperation(int[] weights, int roll) {
+        int bound = 0;
+        for (int i = 0; i < weights.length; i++) {
+            bound += weights[i];
+            if (roll < bound) {
+                return OPERATIONS.get(i);
+            }
+        }
+        return OPERATIONS.get(0);
+    }
+
+    /**
+     * Разбирает пропорцию операций "get=60,post=15,put=15,delete=10"; сумма должна быть равна 100.
+     */
+    private static int[] parseMix(String mix) {
+        int[] weights = new int[OPERATIONS.size()];
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            int index = OPERATIONS.indexOf(pair[0].trim().toLowerCase());
+            assertTrue(index >= 0 && pair.length == 2, "Unknown operation in loadtest.mix: " + part);
+            weights[index] = Integer.parseInt(pair[1].trim());
+        }
+        assertEquals(100, Arrays.stream(weights).sum(), "loadtest.mix weights must add up to 100");
+        return weights;
+    }
+
+    private String login(LatencyRecorder recorder) throws Exception {
+        String body = objectMapper.createObjectNode()
+                .put("email", adminEmail)
+                .put("password", adminPassword)
+                .toString();
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        recorder.record(start);
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private Long createTask(String token, int index) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri("/tasks"))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.ofString(taskJson(index).toString()))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        return response.statusCode() == 200 ? objectMapper.readTree(response.body()).get("taskId").asLong() : null;
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest put(Long taskId, String token, int index) {
+        ObjectNode task = taskJson(index).put("status", "в процессе");
+        return HttpRequest.newBuilder(uri("/tasks/" + taskId))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .PUT(HttpRequest.BodyPublishers.ofString(task.toString()))
+                .build();
+    }
+
+    private HttpRequest delete(Long taskId, String token) {
+        return HttpRequest.newBuilder(uri("/tasks/" + taskId))
+                .header("Authorization", "Bearer " + token)
+                .DELETE()
+                .build();
+    }
+
+    private int send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static ObjectNode taskJson(int index) {
+        return objectMapper.createObjectNode()
+                .put("title", "Load test task " + index)
+                .put("description", "Task created by the task API load benchmark")
+                .put("status", "в ожидании")
+                .put("priority", "средний")
+                .put("createdDate", "2024-01-01")
+                .put("deadline", "2024-12-31");
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,173 @@
+package ru.tz1.taskTracker.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import ru.tz1.taskTracker.TaskTrackerApplication;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Бенчмарк обработки запросов на потоках платформы (пул Tomcat) и на виртуальных потоках
+ * (spring.threads.virtual.enabled). Приложение запускается дважды; на каждом уровне одновременности
+ * клиенты в течение заданного времени читают GET /tasks и GET /tasks/{id}, каждый запрос проходит
+ * JWT-фильтр и обращается к базе данных. Для каждого режима выводятся пропускная способность и p99
+ * по уровням, а также наибольшая одновременность, при которой p99 не превышает порог и нет ошибок.
+ * Запуск: mvn test -Pbenchmark -Dtest=VirtualThreadsBenchmark
+ * Параметры: -Dbenchmark.durationSeconds, -Dbenchmark.concurrency (список уровней через запятую),
+ * -Dbenchmark.p99ThresholdMillis, -Dbenchmark.datasourceUrl (по умолчанию H2 в памяти).
+ * Закрепление виртуальных потоков (pinning) выводится с -DargLine=-Djdk.tracePinnedThreads=short.
+ */
+@Tag("benchmark")
+public class VirtualThreadsBenchmark {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void platformVersusVirtualThreads() throws Exception {
+        long durationSeconds = Long.getLong("benchmark.durationSeconds", 10);
+        int[] concurrencyLevels = Arrays.stream(System.getProperty("benchmark.concurrency", "50,200,800,2000").split(","))
+                .mapToInt(level -> Integer.parseInt(level.trim()))
+                .toArray();
+        double p99ThresholdMillis = Double.parseDouble(System.getProperty("benchmark.p99ThresholdMillis", "250"));
+
+        List<String> summary = new ArrayList<>();
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            String mode = virtualThreads ? "virtual threads" : "platform threads";
+            try (ConfigurableApplicationContext context = startApplication(virtualThreads)) {
+                Environment environment = context.getEnvironment();
+                String baseUrl = "http://localhost:" + environment.getRequiredProperty("local.server.port");
+                HttpClient client = HttpClient.newBuilder()
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .executor(Executors.newVirtualThreadPerTaskExecutor())
+                        .build();
+                String token = login(client, baseUrl, environment);
+                List<Long> taskIds = createTasks(client, baseUrl, token, 20);
+
+                int maxConcurrency = 0;
+                System.out.printf("%s, %d s per level%n", mode, durationSeconds);
+                for (int concurrency : concurrencyLevels) {
+                    AtomicLong errors = new AtomicLong();
+                    LatencyRecorder reads = runLevel(client, baseUrl, token, taskIds, concurrency, durationSeconds, errors);
+                    System.out.println(reads.report(durationSeconds) + "  errors=" + errors.get());
+                    assertTrue(reads.count() > 0, "No successful requests at concurrency " + concurrency);
+                    if (errors.get() == 0 && reads.percentileMillis(99) <= p99ThresholdMillis) {
+                        maxConcurrency = concurrency;
+                    }
+                }
+                summary.add(String.format("%-16s max concurrency with p99 <= %.0f ms: %d",
+                        mode, p99ThresholdMillis, maxConcurrency));
+            }
+        }
+        summary.forEach(System.out::println);
+    }
+
+    /**
+     * Создает нагрузку заданной одновременности: каждый клиент в своем виртуальном потоке
+     * отправляет запросы один за другим до окончания времени.
+     */
+    private LatencyRecorder runLevel(HttpClient client, String baseUrl, String token, List<Long> taskIds,
+                                     int concurrency, long durationSeconds, AtomicLong errors) throws InterruptedException {
+        LatencyRecorder reads = new LatencyRecorder("concurrency " + concurrency);
+        HttpRequest listTasks = HttpRequest.newBuilder(URI.create(baseUrl + "/tasks?limit=20"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < concurrency; i++) {
+            final int worker = i;
+            workers.submit(() -> {
+                long iteration = worker;
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = iteration++ % 2 == 0 ? listTasks
+                            : HttpRequest.newBuilder(URI.create(baseUrl + "/tasks/" + taskIds.get((int) (iteration % taskIds.size()))))
+                            .header("Authorization", "Bearer " + token)
+                            .GET()
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                            reads.record(start);
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        assertTrue(workers.awaitTermination(durationSeconds + 120, TimeUnit.SECONDS));
+        return reads;
+    }
+
+    private static ConfigurableApplicationContext startApplication(boolean virtualThreads) {
+        String mode = virtualThreads ? "virtual" : "platform";
+        String datasourceUrl = System.getProperty("benchmark.datasourceUrl",
+                "jdbc:h2:mem:threads-" + mode + ";DB_CLOSE_DELAY=-1");
+        return new SpringApplicationBuilder(TaskTrackerApplication.class)
+                .properties(
+                        "server.port=0",
+                        "management.server.port=0",
+                        "spring.datasource.url=" + datasourceUrl,
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.jpa.show-sql=false",
+                        "logging.level.org.springframework.security=INFO")
+                .run();
+    }
+
+    private static String login(HttpClient client, String baseUrl, Environment environment) throws Exception {
+        String body = objectMapper.createObjectNode()
+                .put("email", environment.getRequiredProperty("admin.email"))
+                .put("password", environment.getRequiredProperty("admin.password"))
+                .toString();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private static List<Long> createTasks(HttpClient client, String baseUrl, String token, int count) throws Exception {
+        List<Long> taskIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            JsonNode task = objectMapper.createObjectNode()
+                    .put("title", "Benchmark task " + i)
+                    .put("description", "Task created by the virtual threads benchmark")
+                    .put("status", "в ожидании")
+                    .put("priority", "средний")
+                    .put("createdDate", "2024-01-01")
+                    .put("deadline", "2024-12-31");
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/tasks"))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + token)
+                    .POST(HttpRequest.BodyPublishers.ofString(task.toString()))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode(), response.body());
+            taskIds.add(objectMapper.readTree(response.body()).get("taskId").asLong());
+        }
+        return taskIds;
+    }
+}
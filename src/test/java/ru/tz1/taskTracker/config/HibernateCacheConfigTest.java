@@ -0,0 +1,146 @@
+package ru.tz1.taskTracker.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.tz1.taskTracker.entity.Task;
+import ru.tz1.taskTracker.entity.TaskPriority;
+import ru.tz1.taskTracker.entity.TaskStatus;
+import ru.tz1.taskTracker.repository.TaskCacheEvictor;
+import ru.tz1.taskTracker.repository.TaskTombstoneRepository;
+import ru.tz1.taskTracker.service.TaskChangeCounter;
+import ru.tz1.taskTracker.service.TaskChangeSequence;
+import ru.tz1.taskTracker.service.TaskEventPublisher;
+import ru.tz1.taskTracker.service.TaskSearchIndex;
+import ru.tz1.taskTracker.service.TaskService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({HibernateCacheConfig.class, TaskService.class, TaskSearchIndex.class, TaskChangeCounter.class,
+        TaskEventPublisher.class, TaskChangeSequence.class, TaskCacheEvictor.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Записи кэша видны транзакциям, начатым после их сохранения
+public class HibernateCacheConfigTest {
+
+    private static final String COMMENTS_ROLE = Task.class.getName() + ".comments";
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void testGetTaskById_ReadsTaskFromCache() {
+        Task task = taskService.createTask(newTask("Cached"), null);
+        try {
+            taskService.getTaskById(task.getTaskId());
+            statistics.clear();
+
+            Task cached = taskService.getTaskById(task.getTaskId());
+
+            assertEquals("Cached", cached.getTitle());
+            assertEquals(0, statistics.getPrepareStatementCount());
+            assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        } finally {
+            deleteTask(task);
+        }
+    }
+
+    @Test
+    public void testGetTasksPage_RepeatedPageComesFromQueryCache() {
+        Task task = taskService.createTask(newTask("Paged"), null);
+        try {
+            findInPage(task.getTaskId());
+            statistics.clear();
+
+            Task cached = findInPage(task.getTaskId());
+
+            assertEquals("Paged", cached.getTitle());
+            assertEquals(0, statistics.getPrepareStatementCount());
+            assertEquals(1, statistics.getQueryCacheHitCount());
+        } finally {
+            deleteTask(task);
+        }
+    }
+
+    @Test
+    public void testAddComment_EvictsCachedTaskAndComments() {
+        Task task = taskService.createTask(newTask("Commented"), null);
+        try {
+            Task before = findInPage(task.getTaskId()); // Задача, комментарии и страница попадают в кэш
+
+            taskService.addComment(task.getTaskId(), "new comment");
+
+            Task after = findInPage(task.getTaskId());
+            assertEquals(before.getVersion() + 1, after.getVersion());
+            assertEquals(2, after.getComments().size());
+            assertTrue(after.getComments().contains("new comment"));
+        } finally {
+            deleteTask(task);
+        }
+    }
+
+    @Test
+    public void testAddComment_KeepsOtherTasksCached() {
+        Task commented = taskService.createTask(newTask("Commented"), null);
+        Task other = taskService.createTask(newTask("Other"), null);
+        try {
+            findInPage(commented.getTaskId()); // Обе задачи и их комментарии попадают в кэш
+            findInPage(other.getTaskId());
+            Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+            assertTrue(cache.containsCollection(COMMENTS_ROLE, other.getTaskId()));
+
+            taskService.addComment(commented.getTaskId(), "new comment");
+
+            assertFalse(cache.containsEntity(Task.class, commented.getTaskId()));
+            assertFalse(cache.containsCollection(COMMENTS_ROLE, commented.getTaskId()));
+            assertTrue(cache.containsEntity(Task.class, other.getTaskId()));
+            assertTrue(cache.containsCollection(COMMENTS_ROLE, other.getTaskId()));
+        } finally {
+            deleteTask(commented);
+            deleteTask(other);
+        }
+    }
+
+    private Task findInPage(Long taskId) {
+        return taskService.getTasksPage(null, null).getTasks().stream()
+                .filter(task -> task.getTaskId().equals(taskId))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private void deleteTask(Task task) {
+        // Тест выполняется без откатываемой транзакции, поэтому данные удаляются явно
+        taskService.deleteTask(task.getTaskId());
+        taskTombstoneRepository.deleteAll();
+    }
+
+    private static Task newTask(String title) {
+        return new Task(null, title, title + " description", TaskStatus.WAITING, TaskPriority.MEDIUM,
+                LocalDate.now(), null, new ArrayList<>(List.of("comment")));
+    }
+}
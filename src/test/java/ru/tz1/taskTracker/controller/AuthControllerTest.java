@@ -1,5 +1,6 @@
 package ru.tz1.taskTracker.controller;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -11,6 +12,9 @@ import ru.tz1.taskTracker.entity.User;
 import ru.tz1.taskTracker.service.UserService;
 import ru.tz1.taskTracker.util.JwtUtil;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -22,8 +26,10 @@ public class AuthControllerTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
-    private AuthController authController;
+    private AuthController authController = new AuthController(meterRegistry);
 
     private User existingUser;
 
@@ -43,14 +49,16 @@ public class AuthControllerTest {
         user.setPassword("myPassword"); // Вводимый пароль
 
         when(userService.findByEmail(user.getEmail())).thenReturn(existingUser);
-        when(userService.isPasswordValid(user.getPassword(), existingUser.getPassword())).thenReturn(true);
+        when(userService.isPasswordValidAsync(user.getPassword(), existingUser.getPassword()))
+                .thenReturn(CompletableFuture.completedFuture(true));
         when(jwtUtil.generateToken(existingUser.getEmail())).thenReturn("mockJwtToken");
 
-        ResponseEntity<?> response = authController.loginUser(user);
+        ResponseEntity<?> response = authController.loginUser(user).join();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals("mockJwtToken", ((AuthController.LoginResponse) response.getBody()).getToken());
+        assertEquals(1.0, loginCount("success"));
     }
 
     @Test
@@ -61,10 +69,11 @@ public class AuthControllerTest {
 
         when(userService.findByEmail(user.getEmail())).thenReturn(null); // Пользователь не найден
 
-        ResponseEntity<?> response = authController.loginUser(user);
+        ResponseEntity<?> response = authController.loginUser(user).join();
 
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
         assertEquals("Invalid credentials", ((AuthController.ErrorResponse) response.getBody()).getMessage());
+        assertEquals(1.0, loginCount("unknown_user"));
     }
 
     @Test
@@ -74,11 +83,42 @@ public class AuthControllerTest {
         user.setPassword("wrongPassword"); // Неверный пароль
 
         when(userService.findByEmail(user.getEmail())).thenReturn(existingUser);
-        when(userService.isPasswordValid(user.getPassword(), existingUser.getPassword())).thenReturn(false);
+        when(userService.isPasswordValidAsync(user.getPassword(), existingUser.getPassword()))
+                .thenReturn(CompletableFuture.completedFuture(false));
 
-        ResponseEntity<?> response = authController.loginUser(user);
+        ResponseEntity<?> response = authController.loginUser(user).join();
 
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
         assertEquals("Invalid credentials", ((AuthController.ErrorResponse) response.getBody()).getMessage());
+        assertEquals(1.0, loginCount("bad_password"));
+    }
+
+    @Test
+    public void testLoginUser_PasswordHashingSaturated() {
+        User user = new User();
+        user.setEmail("test@example.com");
+        user.setPassword("myPassword");
+
+        when(userService.findByEmail(user.getEmail())).thenReturn(existingUser);
+        when(userService.isPasswordValidAsync(user.getPassword(), existingUser.getPassword()))
+                .thenReturn(CompletableFuture.failedFuture(new RejectedExecutionException("queue is full")));
+
+        ResponseEntity<?> response = authController.loginUser(user).join();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst("Retry-After"));
+        verify(jwtUtil, never()).generateToken(anyString());
+        assertEquals(1.0, loginCount("rejected"));
+    }
+
+    @Test
+    public void testLoginCounters_RegisteredBeforeFirstLogin() {
+        for (String outcome : new String[]{"success", "unknown_user", "bad_password", "rejected", "error"}) {
+            assertEquals(0.0, loginCount(outcome));
+        }
+    }
+
+    private double loginCount(String outcome) {
+        return meterRegistry.get("auth.login").tag("outcome", outcome).counter().count();
     }
-}
\ No newline at end of file
+}
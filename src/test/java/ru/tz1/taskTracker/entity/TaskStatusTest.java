@@ -0,0 +1,48 @@
+package ru.tz1.taskTracker.entity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskStatusTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    public void testJson_LabelsStayBackwardCompatible() throws Exception {
+        Task task = objectMapper.readValue("{\"title\": \"Task\", \"status\": \"в процессе\", \"priority\": \"высокий\"}",
+                Task.class);
+
+        assertEquals(TaskStatus.IN_PROGRESS, task.getStatus());
+        assertEquals(TaskPriority.HIGH, task.getPriority());
+        String json = objectMapper.writeValueAsString(task);
+        assertTrue(json.contains("\"status\":\"в процессе\""));
+        assertTrue(json.contains("\"priority\":\"высокий\""));
+    }
+
+    @Test
+    public void testFromValue_AcceptsLabelNameAndCode() {
+        assertEquals(TaskStatus.DONE, TaskStatus.fromValue("Завершено"));
+        assertEquals(TaskStatus.DONE, TaskStatus.fromValue("done"));
+        assertEquals(TaskStatus.DONE, TaskStatus.fromValue("3"));
+        assertEquals(TaskPriority.LOW, TaskPriority.fromValue(" низкий "));
+        assertNull(TaskStatus.fromValue(""));
+        assertThrows(IllegalArgumentException.class, () -> TaskStatus.fromValue("готово"));
+    }
+
+    @Test
+    public void testConverters_RoundTripCodes() {
+        TaskStatusConverter statusConverter = new TaskStatusConverter();
+        TaskPriorityConverter priorityConverter = new TaskPriorityConverter();
+
+        for (TaskStatus status : TaskStatus.values()) {
+            assertEquals(status, statusConverter.convertToEntityAttribute(statusConverter.convertToDatabaseColumn(status)));
+        }
+        for (TaskPriority priority : TaskPriority.values()) {
+            assertEquals(priority,
+                    priorityConverter.convertToEntityAttribute(priorityConverter.convertToDatabaseColumn(priority)));
+        }
+        assertNull(statusConverter.convertToDatabaseColumn(null));
+    }
+}
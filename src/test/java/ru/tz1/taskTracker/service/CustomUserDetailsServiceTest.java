@@ -0,0 +1,92 @@
+package ru.tz1.taskTracker.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.tz1.taskTracker.entity.User;
+import ru.tz1.taskTracker.repository.UserRepository;
+import ru.tz1.taskTracker.security.AuthenticatedUser;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CustomUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private CustomUserDetailsService userDetailsService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userDetailsService = new CustomUserDetailsService(userRepository, 300, 100);
+        User user = new User("Test", "test@example.com", "$2a$10$exampleHash", "USER");
+        user.setUserId(7L);
+        when(userRepository.findByEmail("test@example.com")).thenReturn(user);
+    }
+
+    @Test
+    public void testLoadUserByUsername_PrincipalCarriesUserId() {
+        userDetailsService.loadUserByUsername("test@example.com");
+        UserDetails cached = userDetailsService.loadUserByUsername("test@example.com");
+
+        AuthenticatedUser principal = assertInstanceOf(AuthenticatedUser.class, cached);
+        assertEquals(7L, principal.getUserId());
+        assertTrue(principal.getAuthorities().stream().anyMatch(a -> "ROLE_USER".equals(a.getAuthority())));
+    }
+
+    @Test
+    public void testLoadUserByUsername_SecondCallIsServedFromCache() {
+        UserDetails first = userDetailsService.loadUserByUsername("test@example.com");
+        UserDetails second = userDetailsService.loadUserByUsername("test@example.com");
+
+        assertEquals("test@example.com", second.getUsername());
+        assertEquals(first.getPassword(), second.getPassword());
+        verify(userRepository, times(1)).findByEmail("test@example.com");
+        assertEquals(1, userDetailsService.getCacheStats().hitCount());
+        assertEquals(1, userDetailsService.getCacheStats().missCount());
+    }
+
+    @Test
+    public void testEvict_NextCallReloadsUser() {
+        userDetailsService.loadUserByUsername("test@example.com");
+        userDetailsService.evict("test@example.com");
+        userDetailsService.loadUserByUsername("test@example.com");
+
+        verify(userRepository, times(2)).findByEmail("test@example.com");
+    }
+
+    @Test
+    public void testEvict_InTransactionRepeatedAfterCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userDetailsService.loadUserByUsername("test@example.com");
+            userDetailsService.evict("test@example.com");
+            // Параллельный запрос до фиксации удаления снова кладет пользователя в кэш
+            userDetailsService.loadUserByUsername("test@example.com");
+            assertEquals(1, userDetailsService.getCacheSize());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(0, userDetailsService.getCacheSize());
+    }
+
+    @Test
+    public void testLoadUserByUsername_UnknownUserIsNotCached() {
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("missing@example.com"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("missing@example.com"));
+
+        verify(userRepository, times(2)).findByEmail("missing@example.com");
+        assertEquals(0, userDetailsService.getCacheSize());
+    }
+}
@@ -0,0 +1,65 @@
+package ru.tz1.taskTracker.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PasswordHashingServiceTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PasswordHashingService hashingService;
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        if (hashingService != null) {
+            hashingService.shutdown();
+        }
+    }
+
+    @Test
+    public void testMatches_RunsOnExecutor() {
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.matches("raw", "hash")).thenReturn(true);
+        hashingService = new PasswordHashingService(encoder, 1, 1, meterRegistry);
+
+        assertTrue(hashingService.matches("raw", "hash").join());
+        assertEquals(1, meterRegistry.get("auth.bcrypt").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    public void testEncode_RejectedWhenQueueIsFull() throws Exception {
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        CountDownLatch started = new CountDownLatch(1);
+        when(encoder.encode(anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return "hash";
+        });
+        hashingService = new PasswordHashingService(encoder, 1, 1, meterRegistry);
+
+        CompletableFuture<String> running = hashingService.encode("first"); // Занимает единственный поток
+        started.await();
+        CompletableFuture<String> queued = hashingService.encode("second"); // Занимает единственное место в очереди
+        CompletableFuture<String> rejected = hashingService.encode("third");
+
+        CompletionException error = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        assertEquals(1.0, meterRegistry.get("auth.bcrypt.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("hash", running.join());
+        assertEquals("hash", queued.join());
+    }
+}
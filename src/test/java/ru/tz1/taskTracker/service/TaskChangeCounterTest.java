@@ -0,0 +1,54 @@
+package ru.tz1.taskTracker.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskChangeCounterTest {
+
+    private final TaskChangeCounter counter = new TaskChangeCounter();
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(counter);
+    }
+
+    @Test
+    public void testRecordChange_ChangesEtagOutsideTransaction() {
+        String before = counter.etag(null);
+        assertEquals(before, counter.etag(null));
+
+        counter.recordChange();
+
+        assertNotEquals(before, counter.etag(null));
+        assertEquals(1, counter.current());
+    }
+
+    @Test
+    public void testRecordChange_InTransactionIncrementsOnceAfterCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+        counter.recordChange();
+        counter.recordChange();
+        assertEquals(0, counter.current()); // До завершения транзакции ETag не меняется
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        assertEquals(1, counter.current());
+        assertFalse(TransactionSynchronizationManager.hasResource(counter));
+    }
+
+    @Test
+    public void testEtag_VariantDistinguishesResponses() {
+        assertNotEquals(counter.etag(1L), counter.etag(2L));
+        assertNotEquals(counter.etag(null), counter.etag(1L));
+        assertTrue(counter.etag(null).startsWith("\"") && counter.etag(null).endsWith("\""));
+    }
+}
@@ -0,0 +1,169 @@
+package ru.tz1.taskTracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.tz1.taskTracker.entity.Task;
+import ru.tz1.taskTracker.entity.TaskEventDto;
+import ru.tz1.taskTracker.entity.TaskPriority;
+import ru.tz1.taskTracker.entity.TaskStatus;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TaskEventPublisherTest {
+
+    private final ObjectMapper objectMapper = spy(JsonMapper.builder().findAndAddModules().build());
+    private final TaskEventPublisher publisher = new TaskEventPublisher(objectMapper, 4, 60_000, 2, 1, 60);
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        publisher.shutdown();
+    }
+
+    @Test
+    public void testPublish_WithoutSubscribersDoesNotSerialize() throws Exception {
+        publisher.publish(TaskEventDto.deleted(1L));
+
+        verify(objectMapper, never()).writeValueAsString(any());
+        assertFalse(publisher.hasSubscribers());
+    }
+
+    @Test
+    public void testSubscribe_LimitsSubscriberCount() {
+        SseEmitter first = publisher.subscribe();
+        publisher.subscribe();
+
+        assertNotNull(first);
+        assertEquals(2, publisher.getSubscriberCount());
+        assertThrows(IllegalStateException.class, publisher::subscribe);
+    }
+
+    @Test
+    public void testSubscribe_ConcurrentSubscribersDoNotExceedLimit() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        publisher.subscribe();
+                        accepted.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        // Ограничение достигнуто
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(2, accepted.get());
+        assertEquals(2, publisher.getSubscriberCount());
+    }
+
+    @Test
+    public void testPublish_SlowSubscriberDoesNotBlockPublisher() throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch releaseSend = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(1);
+        AtomicReference<String> completingThread = new AtomicReference<>();
+        SseEmitter blockingEmitter = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                sending.countDown();
+                try {
+                    releaseSend.await(); // Сокет медленного клиента не принимает данные
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void complete() {
+                completingThread.set(Thread.currentThread().getName());
+                completed.countDown();
+            }
+        };
+        TaskEventPublisher slowPublisher = new TaskEventPublisher(objectMapper, 4, 60_000, 2, 1, 60) {
+            @Override
+            SseEmitter createEmitter() {
+                return blockingEmitter;
+            }
+        };
+        try {
+            slowPublisher.subscribe();
+            assertTrue(sending.await(5, TimeUnit.SECONDS));
+
+            // Очередь из 4 событий переполняется, и подписчик отключается в публикующем потоке
+            assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+                for (long id = 1; id <= 6; id++) {
+                    slowPublisher.publish(TaskEventDto.deleted(id));
+                }
+            });
+            assertEquals(0, slowPublisher.getSubscriberCount());
+            assertEquals(1, completed.getCount());
+
+            releaseSend.countDown();
+            assertTrue(completed.await(5, TimeUnit.SECONDS));
+            assertTrue(completingThread.get().startsWith("task-stream-"), completingThread.get());
+        } finally {
+            releaseSend.countDown();
+            slowPublisher.shutdown();
+        }
+    }
+
+    @Test
+    public void testPublish_InTransactionIsDeferredUntilCommit() throws Exception {
+        publisher.subscribe();
+        TransactionSynchronizationManager.initSynchronization();
+        Task task = new Task(5L, "Task", "Task description", TaskStatus.DONE, TaskPriority.HIGH,
+                null, null, new ArrayList<>());
+
+        publisher.publish(TaskEventDto.of(TaskEventDto.Type.UPDATED, task));
+
+        // Событие сериализуется сразу, а отправка ждет фиксации транзакции
+        verify(objectMapper).writeValueAsString(any(TaskEventDto.class));
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+    }
+
+    @Test
+    public void testEventJson_ContainsTypeAndTask() throws Exception {
+        Task task = new Task(5L, "Task", "Task description", TaskStatus.DONE, TaskPriority.HIGH,
+                null, null, new ArrayList<>());
+
+        String json = objectMapper.writeValueAsString(TaskEventDto.of(TaskEventDto.Type.CREATED, task));
+        String deleted = objectMapper.writeValueAsString(TaskEventDto.deleted(5L));
+
+        assertTrue(json.contains("\"type\":\"created\""), json);
+        assertTrue(json.contains("\"title\":\"Task\""), json);
+        assertEquals("{\"type\":\"deleted\",\"taskId\":5}", deleted);
+    }
+}
@@ -0,0 +1,107 @@
+package ru.tz1.taskTracker.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.tz1.taskTracker.entity.Task;
+import ru.tz1.taskTracker.entity.TaskImportJob;
+import ru.tz1.taskTracker.entity.TaskPriority;
+import ru.tz1.taskTracker.entity.TaskStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Import({TaskExportService.class, JacksonAutoConfiguration.class})
+public class TaskExportServiceTest {
+
+    @Autowired
+    private TaskExportService taskExportService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void testExportNdjson_OneLinePerTaskWithAllComments() throws Exception {
+        persistTask("Первая задача", List.of("первый", "второй"));
+        persistTask("Вторая задача", List.of());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = taskExportService.exportNdjson(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, exported);
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("Первая задача", first.get("title").asText());
+        assertEquals(2, first.get("comments").size());
+        assertEquals(LocalDate.now().toString(), first.get("createdDate").asText());
+        assertTrue(first.get("deadline").isNull());
+        assertEquals(0, objectMapper.readTree(lines[1]).get("comments").size());
+    }
+
+    @Test
+    public void testExportCsv_QuotesSpecialCharacters() throws Exception {
+        persistTask("Title, with \"quotes\"", List.of("a", "b"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = taskExportService.exportCsv(out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertEquals(1, exported);
+        assertTrue(csv.startsWith(String.join(",", TaskExportService.CSV_HEADER) + "\r\n"));
+        assertTrue(csv.contains(",\"Title, with \"\"quotes\"\"\","));
+        // Комментарии одной задачи записываются в одно поле JSON-массивом
+        assertTrue(csv.endsWith(",\"[\"\"a\"\",\"\"b\"\"]\"\r\n") || csv.endsWith(",\"[\"\"b\"\",\"\"a\"\"]\"\r\n"));
+    }
+
+    @Test
+    public void testExportCsv_ImportRestoresMultilineComments() throws Exception {
+        persistTask("Multiline", List.of("first line\nsecond line", "[tag] plain"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        taskExportService.exportCsv(out);
+
+        TaskService taskService = mock(TaskService.class);
+        List<Task> imported = new ArrayList<>();
+        when(taskService.createTasks(anyList(), any())).thenAnswer(invocation -> {
+            List<Task> chunk = invocation.getArgument(0);
+            imported.addAll(chunk);
+            return new ArrayList<>(chunk);
+        });
+        TaskImportService importService = new TaskImportService(taskService, objectMapper, 10, 10, 10);
+        ReflectionTestUtils.setField(importService, "entityManager", mock(EntityManager.class));
+        TaskImportJob job = importService.createJob("csv", null);
+        importService.runImport(job, new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(1, job.getImportedRows());
+        assertEquals(1, imported.size());
+        assertEquals(Set.of("first line\nsecond line", "[tag] plain"), new HashSet<>(imported.get(0).getComments()));
+        assertEquals(2, imported.get(0).getComments().size());
+    }
+
+    private void persistTask(String title, List<String> comments) {
+        entityManager.persist(new Task(null, title, "Task description", TaskStatus.WAITING, TaskPriority.MEDIUM,
+                LocalDate.now(), null, new ArrayList<>(comments)));
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
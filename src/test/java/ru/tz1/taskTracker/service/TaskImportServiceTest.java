@@ -0,0 +1,108 @@
+package ru.tz1.taskTracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.tz1.taskTracker.entity.Task;
+import ru.tz1.taskTracker.entity.TaskImportJob;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TaskImportServiceTest {
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private TaskImportService importService;
+
+    private final List<Task> savedTasks = new ArrayList<>();
+    private final List<Integer> chunkSizes = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        importService = new TaskImportService(taskService, new ObjectMapper().findAndRegisterModules(), 2, 10, 10);
+        ReflectionTestUtils.setField(importService, "entityManager", entityManager);
+        when(taskService.createTasks(anyList(), any())).thenAnswer(invocation -> {
+            List<Task> chunk = invocation.getArgument(0);
+            chunkSizes.add(chunk.size());
+            savedTasks.addAll(chunk);
+            return new ArrayList<>(chunk);
+        });
+    }
+
+    @Test
+    public void testImportNdjson_SavesValidRowsInChunksAndReportsErrors() {
+        String body = String.join("\n",
+                task("Task one"),
+                task("Task two"),
+                "{\"title\": \"No\", \"description\": \"Description of task\", \"status\": \"s\", \"priority\": \"p\"}",
+                "",
+                "{not json",
+                task("Task three"));
+
+        TaskImportJob job = runImport("ndjson", body);
+
+        assertEquals(TaskImportJob.Status.COMPLETED, job.getStatus());
+        assertEquals(5, job.getProcessedRows());
+        assertEquals(3, job.getImportedRows());
+        assertEquals(2, job.getRejectedRows());
+        assertEquals(List.of(3L, 4L), job.getErrors().stream().map(TaskImportJob.RowError::getRow).toList());
+        assertEquals(List.of(2, 1), chunkSizes);
+        assertEquals(LocalDate.of(2024, 5, 1), savedTasks.get(0).getDeadline());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    public void testImportCsv_ReadsQuotedValuesAndMultilineComments() {
+        String body = "taskId,title,description,status,priority,createdDate,deadline,comments\r\n"
+                + "1,\"Title, quoted\",Description of task,в ожидании,средний,2024-05-01,,\"first\nsecond\"\r\n"
+                + "2,Task,Description of task,в ожидании,средний,not-a-date,,\r\n";
+
+        TaskImportJob job = runImport("csv", body);
+
+        assertEquals(2, job.getProcessedRows());
+        assertEquals(1, job.getImportedRows());
+        assertEquals(2L, job.getErrors().get(0).getRow());
+        Task task = savedTasks.get(0);
+        assertEquals("Title, quoted", task.getTitle());
+        assertNull(task.getDeadline());
+        assertEquals(List.of("first", "second"), task.getComments());
+    }
+
+    @Test
+    public void testImport_DatabaseFailureMarksJobFailed() {
+        when(taskService.createTasks(anyList(), any())).thenThrow(new IllegalStateException("database is down"));
+
+        TaskImportJob job = runImport("ndjson", task("Task one"));
+
+        assertEquals(TaskImportJob.Status.FAILED, job.getStatus());
+        assertEquals("database is down", job.getMessage());
+        assertSame(job, importService.getJob(job.getJobId()));
+    }
+
+    private TaskImportJob runImport(String format, String body) {
+        TaskImportJob job = importService.createJob(format, null);
+        importService.runImport(job, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        return job;
+    }
+
+    private static String task(String title) {
+        return "{\"title\": \"" + title + "\", \"description\": \"Description of task\", "
+                + "\"status\": \"в ожидании\", \"priority\": \"средний\", \"deadline\": \"2024-05-01\"}";
+    }
+}
@@ -0,0 +1,153 @@
+package ru.tz1.taskTracker.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.tz1.taskTracker.entity.Task;
+import ru.tz1.taskTracker.entity.TaskPriority;
+import ru.tz1.taskTracker.entity.TaskStatus;
+import ru.tz1.taskTracker.repository.TaskRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskSearchIndexTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TaskSearchIndex searchIndex;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        searchIndex = new TaskSearchIndex(taskRepository, transactionManager);
+    }
+
+    @Test
+    public void testSearch_RussianWordFormsAndCase() {
+        searchIndex.index(task(1L, "Исправить ошибку", "Ошибка в задачах на главной странице", List.of()));
+        searchIndex.index(task(2L, "Fix login page", "Login fails for new users", List.of("Ёжик в тумане")));
+
+        assertEquals(List.of(1L), searchIndex.search("ЗАДАЧ", 10));
+        assertEquals(List.of(1L), searchIndex.search("ошибк страниц", 10));
+        assertEquals(List.of(2L), searchIndex.search("ежик", 10));
+        assertEquals(List.of(2L), searchIndex.search("Login, users!", 10));
+        assertTrue(searchIndex.search("ошибка login", 10).isEmpty());
+    }
+
+    @Test
+    public void testSearch_NewestFirstAndLimit() {
+        for (long id = 1; id <= 5; id++) {
+            searchIndex.index(task(id, "Report " + id, "Weekly report description", List.of()));
+        }
+
+        assertEquals(List.of(5L, 4L, 3L), searchIndex.search("weekly", 3));
+    }
+
+    @Test
+    public void testIndexText_AddsCommentWordsToIndexedTask() {
+        searchIndex.index(task(1L, "Отчет", "Описание задачи", List.of()));
+
+        searchIndex.indexText(1L, "Проверить цифры");
+        searchIndex.indexText(2L, "Неизвестная задача");
+
+        assertEquals(List.of(1L), searchIndex.search("цифры отчет", 10));
+        assertTrue(searchIndex.search("неизвестная", 10).isEmpty());
+    }
+
+    @Test
+    public void testIndex_UpdateReplacesOldWords() {
+        searchIndex.index(task(1L, "Старый заголовок", "Описание задачи", List.of("первый комментарий")));
+        searchIndex.index(task(1L, "Новый заголовок", "Описание задачи", List.of()));
+
+        assertTrue(searchIndex.search("старый", 10).isEmpty());
+        assertTrue(searchIndex.search("комментарий", 10).isEmpty());
+        assertEquals(List.of(1L), searchIndex.search("новый", 10));
+        assertEquals(1, searchIndex.size());
+    }
+
+    @Test
+    public void testRemove_TaskNoLongerFound() {
+        searchIndex.index(task(1L, "Deploy release", "Deploy the new release", List.of()));
+        searchIndex.remove(1L);
+
+        assertTrue(searchIndex.search("deploy", 10).isEmpty());
+        assertEquals(0, searchIndex.size());
+    }
+
+    @Test
+    public void testIndex_ConcurrentCreateAndDeleteKeepsRemainingTasks() throws Exception {
+        int threads = 8;
+        int tasksPerThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long firstId = (long) t * tasksPerThread * 2;
+                futures.add(executor.submit(() -> {
+                    for (long id = firstId; id < firstId + tasksPerThread * 2; id += 2) {
+                        // Четные задачи остаются, нечетные удаляются сразу после создания
+                        searchIndex.index(task(id, "Shared title", "Shared description", List.of()));
+                        searchIndex.index(task(id + 1, "Shared title", "Shared description", List.of()));
+                        searchIndex.remove(id + 1);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Long> found = searchIndex.search("shared", Integer.MAX_VALUE);
+        assertEquals(threads * tasksPerThread, found.size());
+        assertTrue(found.stream().allMatch(id -> id % 2 == 0));
+        assertEquals(threads * tasksPerThread, searchIndex.size());
+    }
+
+    @Test
+    public void testIndex_InsideTransactionAppliedOnlyAfterCommit() {
+        searchIndex.index(task(1L, "Deploy release", "Deploy the new release", List.of()));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            searchIndex.index(task(2L, "Deploy hotfix", "Rolled back task", List.of()));
+            searchIndex.remove(1L);
+
+            assertEquals(List.of(1L), searchIndex.search("deploy", 10)); // До фиксации индекс не изменился
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization(); // Транзакция откатилась
+        }
+        assertEquals(List.of(1L), searchIndex.search("deploy", 10));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            searchIndex.index(task(2L, "Deploy hotfix", "Committed task", List.of()));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(List.of(2L, 1L), searchIndex.search("deploy", 10));
+    }
+
+    private Task task(Long id, String title, String description, List<String> comments) {
+        return new Task(id, title, description, TaskStatus.WAITING, TaskPriority.MEDIUM,
+                LocalDate.now(), LocalDate.now(), new ArrayList<>(comments));
+    }
+}
@@ -0,0 +1,326 @@
+package ru.tz1.taskTracker.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.tz1.taskTracker.entity.Task;
+import ru.tz1.taskTracker.entity.TaskChangesDto;
+import ru.tz1.taskTracker.entity.TaskFilter;
+import ru.tz1.taskTracker.entity.TaskPageDto;
+import ru.tz1.taskTracker.entity.TaskPatchDto;
+import ru.tz1.taskTracker.entity.TaskPriority;
+import ru.tz1.taskTracker.entity.TaskStatus;
+import ru.tz1.taskTracker.entity.TaskSummaryDto;
+import ru.tz1.taskTracker.entity.User;
+import ru.tz1.taskTracker.repository.TaskCacheEvictor;
+import ru.tz1.taskTracker.repository.TaskTombstoneRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({TaskService.class, TaskSearchIndex.class, TaskChangeCounter.class, TaskEventPublisher.class,
+        TaskChangeSequence.class, TaskCacheEvictor.class, JacksonAutoConfiguration.class})
+public class TaskServiceTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void testGetTasksPage_StatementCountDoesNotGrowWithTaskCount() {
+        persistTasks(5);
+        long statementsForSmallPage = countStatementsForFullPage(5);
+
+        persistTasks(95);
+        long statementsForLargePage = countStatementsForFullPage(100);
+
+        // Одна выборка задач и одна пакетная выборка комментариев, независимо от количества задач
+        assertEquals(2, statementsForSmallPage);
+        assertEquals(statementsForSmallPage, statementsForLargePage);
+    }
+
+    @Test
+    public void testGetTaskSummariesPage_SingleStatement() {
+        persistTasks(50);
+        entityManager.clear();
+        statistics.clear();
+
+        TaskPageDto<TaskSummaryDto> page = taskService.getTaskSummariesPage(new TaskFilter(), null, 200);
+
+        assertEquals(50, page.getTasks().size());
+        assertEquals(2, page.getTasks().get(0).getCommentCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testGetTasksPage_CursorContinuesAfterLastTask() {
+        persistTasks(3);
+        entityManager.clear();
+
+        TaskPageDto<Task> firstPage = taskService.getTasksPage(null, 2);
+        assertEquals(2, firstPage.getTasks().size());
+        assertNotNull(firstPage.getNextCursor());
+
+        TaskPageDto<Task> secondPage = taskService.getTasksPage(firstPage.getNextCursor(), 2);
+        assertEquals(1, secondPage.getTasks().size());
+        assertNull(secondPage.getNextCursor());
+        assertTrue(secondPage.getTasks().get(0).getTaskId() > firstPage.getTasks().get(1).getTaskId());
+    }
+
+    @Test
+    public void testGetTasksPage_FilterAndSortByDeadlineDescending() {
+        LocalDate today = LocalDate.now();
+        persistTask(TaskStatus.IN_PROGRESS, today.plusDays(1));
+        persistTask(TaskStatus.IN_PROGRESS, today.plusDays(3));
+        persistTask(TaskStatus.WAITING, today.plusDays(2));
+        persistTask(TaskStatus.IN_PROGRESS, today.plusDays(3));
+        persistTask(TaskStatus.IN_PROGRESS, null);
+        entityManager.flush();
+        entityManager.clear();
+
+        TaskFilter filter = new TaskFilter().withSort("-deadline");
+        filter.setStatus(TaskStatus.IN_PROGRESS);
+
+        List<Task> collected = new ArrayList<>();
+        String cursor = null;
+        do {
+            TaskPageDto<Task> page = taskService.getTasksPage(filter, cursor, 2);
+            collected.addAll(page.getTasks());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(4, collected.size());
+        assertEquals(today.plusDays(3), collected.get(0).getDeadline());
+        assertEquals(today.plusDays(3), collected.get(1).getDeadline());
+        assertTrue(collected.get(0).getTaskId() > collected.get(1).getTaskId());
+        assertEquals(today.plusDays(1), collected.get(2).getDeadline());
+        assertNull(collected.get(3).getDeadline());
+        collected.forEach(task -> assertEquals(TaskStatus.IN_PROGRESS, task.getStatus()));
+    }
+
+    @Test
+    public void testGetTasksPage_UnsupportedSort() {
+        assertThrows(IllegalArgumentException.class, () -> new TaskFilter().withSort("title"));
+    }
+
+    @Test
+    public void testGetTasksPage_InvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasksPage("abc", 10));
+    }
+
+    @Test
+    public void testPatchTask_UpdatesOnlyGivenFields() {
+        persistTasks(1);
+        Long taskId = firstTaskId();
+        entityManager.clear();
+
+        TaskPatchDto patch = new TaskPatchDto();
+        patch.setStatus(TaskStatus.DONE);
+        taskService.patchTask(taskId, patch, null);
+        entityManager.flush();
+        entityManager.clear();
+
+        Task task = entityManager.find(Task.class, taskId);
+        assertEquals(TaskStatus.DONE, task.getStatus());
+        assertEquals("Task 0", task.getTitle());
+        assertEquals(List.of("first", "second"), task.getComments());
+        assertEquals(1L, task.getVersion());
+    }
+
+    @Test
+    public void testPatchAndUpdateTask_StaleVersionIsRejected() {
+        persistTasks(1);
+        Long taskId = firstTaskId();
+        entityManager.clear();
+
+        TaskPatchDto patch = new TaskPatchDto();
+        patch.setStatus(TaskStatus.DONE);
+        assertEquals(1L, taskService.patchTask(taskId, patch, 0L).getVersion());
+        entityManager.clear();
+
+        // Второй клиент редактирует задачу, прочитанную до первого изменения
+        TaskPatchDto stalePatch = new TaskPatchDto();
+        stalePatch.setStatus(TaskStatus.IN_PROGRESS);
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> taskService.patchTask(taskId, stalePatch, 0L));
+        Task staleTask = new Task(null, "Other title", "Other description", TaskStatus.WAITING, TaskPriority.LOW,
+                LocalDate.now(), null, new ArrayList<>());
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> taskService.updateTask(taskId, staleTask, 0L));
+        entityManager.clear();
+
+        Task task = entityManager.find(Task.class, taskId);
+        assertEquals(TaskStatus.DONE, task.getStatus());
+        assertEquals("Task 0", task.getTitle());
+    }
+
+    @Test
+    public void testAddAndRemoveComment_SingleRowWrites() {
+        persistTasks(1);
+        Long taskId = firstTaskId();
+        entityManager.clear();
+
+        taskService.addComment(taskId, "third");
+        assertEquals(1, taskService.removeComment(taskId, "first"));
+        entityManager.clear();
+
+        Task task = entityManager.find(Task.class, taskId);
+        assertEquals(List.of("second", "third"), task.getComments().stream().sorted().toList());
+        assertEquals(2L, task.getVersion()); // Каждое изменение комментариев меняет ETag задачи
+        assertThrows(EntityNotFoundException.class, () -> taskService.removeComment(taskId, "first"));
+        assertThrows(EntityNotFoundException.class, () -> taskService.addComment(taskId + 1, "text"));
+    }
+
+    @Test
+    public void testCreateTasks_InsertsInJdbcBatches() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            tasks.add(new Task(null, "Task " + i, "Description of task " + i, TaskStatus.WAITING, TaskPriority.MEDIUM,
+                    LocalDate.now(), null, new ArrayList<>(List.of("comment " + i))));
+        }
+        statistics.clear();
+
+        List<Task> saved = taskService.createTasks(tasks, null);
+
+        assertEquals(120, saved.size());
+        saved.forEach(task -> assertNotNull(task.getTaskId()));
+        // Без пакетов было бы не меньше 240 запросов: по INSERT на каждую задачу и каждый комментарий
+        assertTrue(statistics.getPrepareStatementCount() < 20,
+                "Statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testGetTasksPage_MineReturnsOnlyOwnedTasks() {
+        Long ownerId = entityManager.persistAndGetId(
+                new User("Owner", "owner@example.com", "hash", "USER"), Long.class);
+        Long otherId = entityManager.persistAndGetId(
+                new User("Other", "other@example.com", "hash", "USER"), Long.class);
+        for (int i = 0; i < 3; i++) {
+            taskService.createTask(new Task(null, "Mine " + i, "Owned task description", TaskStatus.WAITING,
+                    TaskPriority.MEDIUM, LocalDate.now(), null, new ArrayList<>()), ownerId);
+            taskService.createTask(new Task(null, "Other " + i, "Other task description", TaskStatus.WAITING,
+                    TaskPriority.MEDIUM, LocalDate.now(), null, new ArrayList<>()), otherId);
+        }
+        persistTasks(2); // Задачи без владельца
+        entityManager.clear();
+
+        TaskFilter filter = new TaskFilter();
+        filter.setOwnerId(ownerId);
+        TaskPageDto<Task> page = taskService.getTasksPage(filter, null, 100);
+
+        assertEquals(3, page.getTasks().size());
+        page.getTasks().forEach(task -> assertEquals(ownerId, task.getOwnerId()));
+        assertEquals(3, taskService.getTaskSummariesPage(filter, null, 100).getTasks().size());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Номера изменений становятся видны после фиксации транзакций
+    public void testGetChanges_ReturnsChangesAfterGivenNumber() {
+        long start = taskService.getChanges(0, null).getNextSince();
+        Task first = taskService.createTask(newTask("First"), null);
+        Task second = taskService.createTask(newTask("Second"), null);
+        try {
+            TaskChangesDto created = taskService.getChanges(start, 1);
+            assertEquals(List.of(first.getTaskId()), taskIds(created.getTasks()));
+            assertTrue(created.isHasMore());
+
+            TaskChangesDto rest = taskService.getChanges(created.getNextSince(), 1);
+            assertEquals(List.of(second.getTaskId()), taskIds(rest.getTasks()));
+            assertFalse(rest.isHasMore());
+
+            TaskPatchDto patch = new TaskPatchDto();
+            patch.setStatus(TaskStatus.DONE);
+            taskService.patchTask(first.getTaskId(), patch, null);
+            taskService.deleteTask(second.getTaskId());
+
+            TaskChangesDto changes = taskService.getChanges(rest.getNextSince(), null);
+            assertEquals(List.of(first.getTaskId()), taskIds(changes.getTasks()));
+            assertEquals(TaskStatus.DONE, changes.getTasks().get(0).getStatus());
+            assertEquals(List.of(second.getTaskId()), changes.getDeleted());
+            assertFalse(changes.isHasMore());
+
+            // Без новых изменений ответ пустой, а номер не меняется
+            TaskChangesDto none = taskService.getChanges(changes.getNextSince(), null);
+            assertTrue(none.getTasks().isEmpty());
+            assertTrue(none.getDeleted().isEmpty());
+            assertEquals(changes.getNextSince(), none.getNextSince());
+        } finally {
+            // Тест выполняется без откатываемой транзакции, поэтому данные удаляются явно
+            taskService.deleteTask(first.getTaskId());
+            taskService.deleteTask(second.getTaskId());
+            taskTombstoneRepository.deleteAll();
+        }
+    }
+
+    private static Task newTask(String title) {
+        return new Task(null, title, title + " description", TaskStatus.WAITING, TaskPriority.MEDIUM,
+                LocalDate.now(), null, new ArrayList<>(List.of("comment")));
+    }
+
+    private static List<Long> taskIds(List<Task> tasks) {
+        return tasks.stream().map(Task::getTaskId).toList();
+    }
+
+    private long countStatementsForFullPage(int expectedTasks) {
+        entityManager.clear();
+        statistics.clear();
+
+        TaskPageDto<Task> page = taskService.getTasksPage(null, 200);
+        List<Task> tasks = page.getTasks();
+        assertEquals(expectedTasks, tasks.size());
+        // Обращаемся к комментариям так же, как это делает сериализация в JSON
+        tasks.forEach(task -> assertEquals(2, task.getComments().size()));
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Long firstTaskId() {
+        return entityManager.getEntityManager()
+                .createQuery("select min(t.taskId) from Task t", Long.class)
+                .getSingleResult();
+    }
+
+    private void persistTask(TaskStatus status, LocalDate deadline) {
+        entityManager.persist(new Task(null, "Task", "Task description", status, TaskPriority.MEDIUM,
+                LocalDate.now(), deadline, new ArrayList<>()));
+    }
+
+    private void persistTasks(int count) {
+        for (int i = 0; i < count; i++) {
+            Task task = new Task(null, "Task " + i, "Description of task " + i, TaskStatus.WAITING, TaskPriority.MEDIUM,
+                    LocalDate.now(), LocalDate.now().plusDays(7), new ArrayList<>(List.of("first", "second")));
+            entityManager.persist(task);
+        }
+        entityManager.flush();
+    }
+}
@@ -5,9 +5,16 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.tz1.taskTracker.repository.TaskRepository;
 import ru.tz1.taskTracker.repository.UserRepository;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -19,12 +26,52 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskChangeCounter taskChangeCounter;
+
+    @Mock
+    private TaskEventPublisher taskEventPublisher;
+
+    @Mock
+    private TaskChangeSequence taskChangeSequence;
+
     @InjectMocks
     private UserService userService;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(userService, "deleteChunkSize", 2);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    public void testDeleteNonAdminUsers_DeletesInChunksWithoutLoadingUsers() {
+        when(userRepository.findIdsByRoleNot(eq("ADMIN"), eq(0L), any(Limit.class))).thenReturn(List.of(1L, 2L));
+        when(userRepository.findIdsByRoleNot(eq("ADMIN"), eq(2L), any(Limit.class))).thenReturn(List.of(5L));
+        when(userRepository.findIdsByRoleNot(eq("ADMIN"), eq(5L), any(Limit.class))).thenReturn(List.of());
+        when(userRepository.deleteByIdsAndRoleNot(List.of(1L, 2L), "ADMIN")).thenReturn(2);
+        when(userRepository.deleteByIdsAndRoleNot(List.of(5L), "ADMIN")).thenReturn(1);
+        when(taskChangeSequence.current()).thenReturn(7L, 8L);
+
+        assertEquals(3, userService.deleteNonAdminUsers());
+
+        verify(transactionTemplate, times(3)).execute(any());
+        verify(userRepository, never()).findByRoleNot(any());
+        verify(userDetailsService).evictAll();
+        verify(taskRepository).incrementVersionByOwnerIds(List.of(1L, 2L), 7L);
+        verify(taskRepository).incrementVersionByOwnerIds(List.of(5L), 8L);
+        verify(taskChangeCounter).recordChange();
     }
 
     @Test
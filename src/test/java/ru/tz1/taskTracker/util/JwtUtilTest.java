@@ -0,0 +1,64 @@
+package ru.tz1.taskTracker.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtUtilTest {
+
+    private static final String SECRET = "TestSecretKey";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 100);
+    }
+
+    @Test
+    public void testValidateToken_ParsesTokenOnlyOnce() {
+        String token = jwtUtil.generateToken("test@example.com");
+
+        Claims claims = jwtUtil.extractClaims(token);
+        assertTrue(jwtUtil.validateToken(token, "test@example.com"));
+        assertEquals("test@example.com", jwtUtil.extractUsername(token));
+
+        assertSame(claims, jwtUtil.extractClaims(token));
+        assertEquals(1, jwtUtil.getClaimsCacheStats().missCount());
+        assertEquals(3, jwtUtil.getClaimsCacheStats().hitCount());
+    }
+
+    @Test
+    public void testValidateToken_WrongUser() {
+        String token = jwtUtil.generateToken("test@example.com");
+        assertFalse(jwtUtil.validateToken(token, "other@example.com"));
+    }
+
+    @Test
+    public void testExtractClaims_TamperedTokenIsRejectedAndNotCached() {
+        String token = jwtUtil.generateToken("test@example.com");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtUtil.extractClaims(tampered));
+        assertThrows(JwtException.class, () -> jwtUtil.extractClaims(tampered));
+        assertEquals(2, jwtUtil.getClaimsCacheStats().missCount());
+    }
+
+    @Test
+    public void testExtractClaims_ExpiredTokenIsRejected() {
+        String expired = Jwts.builder()
+                .setSubject("test@example.com")
+                .setExpiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(SignatureAlgorithm.HS256, SECRET)
+                .compact();
+
+        assertThrows(JwtException.class, () -> jwtUtil.extractClaims(expired));
+    }
+}